@@ -0,0 +1,114 @@
+package com.mcp.webScraper.Configs;
+
+import com.mcp.webScraper.entity.ScrapeResult;
+import com.mcp.webScraper.entity.SearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static com.mcp.webScraper.Configs.CaffeineCacheConfig.SCRAPE_STALE_RETENTION_HOURS;
+
+/**
+ * How long cached results stay fresh, and how long they may then be served stale while refreshed.
+ * Queries and URLs fall into a freshness class by keyword: news-like ones ("latest", "price", "/news/")
+ * go stale in minutes, reference-like ones ("definition", "docs") keep for a day, the rest use the default.
+ * Failures are only cached for the short negative TTL, so a transient outage is retried soon.
+ */
+@Component
+public class CachePolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(CachePolicy.class);
+
+    public enum FreshnessClass {NEWS, REFERENCE, DEFAULT}
+
+    private final Duration negativeTtl;
+    private final Duration staleWhileRevalidate;
+    private final Duration newsTtl;
+    private final Duration referenceTtl;
+    private final Duration defaultTtl;
+    private final Pattern newsKeywords;
+    private final Pattern referenceKeywords;
+
+    public CachePolicy(@Value("${cache.negativeTtl:30s}") Duration negativeTtl,
+                       @Value("${cache.staleWhileRevalidate:30m}") Duration staleWhileRevalidate,
+                       @Value("${cache.freshness.news.ttl:5m}") Duration newsTtl,
+                       @Value("${cache.freshness.news.keywords:news,latest,today,tonight,breaking,price,prices,stock,stocks,score,scores,weather,election}") String newsKeywords,
+                       @Value("${cache.freshness.reference.ttl:24h}") Duration referenceTtl,
+                       @Value("${cache.freshness.reference.keywords:definition,define,meaning,wiki,wikipedia,docs,documentation,reference,manual,tutorial,history,biography,syntax,example,examples}") String referenceKeywords,
+                       @Value("${cache.freshness.default.ttl:30m}") Duration defaultTtl) {
+        this.negativeTtl = negativeTtl;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.newsTtl = newsTtl;
+        this.referenceTtl = referenceTtl;
+        this.defaultTtl = defaultTtl;
+        this.newsKeywords = keywordPattern(newsKeywords);
+        this.referenceKeywords = keywordPattern(referenceKeywords);
+
+        log.info("Cache freshness: news={}, reference={}, default={}, stale-while-revalidate={}, negative={}",
+                newsTtl, referenceTtl, defaultTtl, staleWhileRevalidate, negativeTtl);
+    }
+
+    /**
+     * Class of a search query or page URL; news wins when both keyword lists match.
+     */
+    public FreshnessClass classify(String text) {
+        if (text == null) return FreshnessClass.DEFAULT;
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (newsKeywords != null && newsKeywords.matcher(lower).find()) return FreshnessClass.NEWS;
+        if (referenceKeywords != null && referenceKeywords.matcher(lower).find()) return FreshnessClass.REFERENCE;
+        return FreshnessClass.DEFAULT;
+    }
+
+    /**
+     * How long a result for the query or URL is served without refreshing it.
+     */
+    public Duration freshFor(String text) {
+        return switch (classify(text)) {
+            case NEWS -> newsTtl;
+            case REFERENCE -> referenceTtl;
+            case DEFAULT -> defaultTtl;
+        };
+    }
+
+    public Duration getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * Search cache keys are canonical queries; an empty or error list is a failure.
+     */
+    public CompressedCache.Lifetime searchLifetime(Object key, Object value) {
+        if (!(value instanceof List<?> results) || results.isEmpty()
+                || results.stream().allMatch(result -> result instanceof SearchResult search && !search.isSuccess())) {
+            return CompressedCache.Lifetime.negative(negativeTtl);
+        }
+        return new CompressedCache.Lifetime(freshFor(String.valueOf(key)), staleWhileRevalidate);
+    }
+
+    /**
+     * Pages are kept for revalidation well past their freshness, which ScrapeServices checks itself.
+     */
+    public CompressedCache.Lifetime scrapeLifetime(Object key, Object value) {
+        if (value instanceof ScrapeResult result && !result.isSuccess()) {
+            return CompressedCache.Lifetime.negative(negativeTtl);
+        }
+        return new CompressedCache.Lifetime(Duration.ofHours(SCRAPE_STALE_RETENTION_HOURS), Duration.ZERO);
+    }
+
+    // Whole words, or path segments for URLs
+    private static Pattern keywordPattern(String keywords) {
+        String[] words = Arrays.stream(keywords.split(","))
+                .map(String::trim)
+                .filter(word -> !word.isEmpty())
+                .map(word -> Pattern.quote(word.toLowerCase(Locale.ROOT)))
+                .toArray(String[]::new);
+        return words.length == 0 ? null : Pattern.compile("\\b(?:" + String.join("|", words) + ")\\b");
+    }
+}
@@ -1,28 +1,97 @@
 package com.mcp.webScraper.Configs;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.webScraper.entity.ScrapeResult;
+import com.mcp.webScraper.entity.SearchResult;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CaffeineCacheConfig {
+
+    public static final String SEARCH_RESULTS = "searchResults";
+    public static final String SCRAPED_PAGES = "scrapedPages";
+
+    // Scraped pages are served as-is while fresh (see CachePolicy), then kept around stale so they can be revalidated
+    public static final long SCRAPE_STALE_RETENTION_HOURS = 6;
+
+    // Heap budget of each cache, counted in stored (compressed) bytes
+    @Value("${cache.searchResults.maxBytes:16777216}")
+    private long searchResultsMaxBytes;
+
+    @Value("${cache.scrapedPages.maxBytes:67108864}")
+    private long scrapedPagesMaxBytes;
+
+    // Optional off-heap store for page bodies; the heap budget above then only covers the index and small pages
+    @Value("${cache.offHeap.maxBytes:268435456}")
+    private long offHeapMaxBytes;
+
+    // Optional disk tier behind both caches, one directory of segments per cache, kept across restarts
+    @Value("${cache.disk.dir:cache-data}")
+    private String diskDir;
+
+    @Value("${cache.disk.searchResults.maxBytes:134217728}")
+    private long searchResultsDiskMaxBytes;
+
+    @Value("${cache.disk.scrapedPages.maxBytes:1073741824}")
+    private long scrapedPagesDiskMaxBytes;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "cache.offHeap.enabled", havingValue = "true")
+    public OffHeapContentStore offHeapContentStore() {
+        return new OffHeapContentStore(offHeapMaxBytes);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "cache.disk.enabled", havingValue = "true")
+    public DiskCacheStore searchResultsDiskStore() throws IOException {
+        return new DiskCacheStore(SEARCH_RESULTS, Path.of(diskDir, SEARCH_RESULTS), searchResultsDiskMaxBytes);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "cache.disk.enabled", havingValue = "true")
+    public DiskCacheStore scrapedPagesDiskStore() throws IOException {
+        return new DiskCacheStore(SCRAPED_PAGES, Path.of(diskDir, SCRAPED_PAGES), scrapedPagesDiskMaxBytes);
+    }
+
+    @Bean
+    public CompressedCache searchResultsCache(ObjectMapper objectMapper, CachePolicy cachePolicy,
+                                              @Qualifier("searchResultsDiskStore") ObjectProvider<DiskCacheStore> diskStore) {
+        CompressedCache cache = new CompressedCache(SEARCH_RESULTS, searchResultsMaxBytes, Duration.ofMinutes(30), objectMapper,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, SearchResult.class),
+                null, diskStore.getIfAvailable());
+        cache.setExpiryPolicy(cachePolicy::searchLifetime);
+        return cache;
+    }
+
     @Bean
-    public Caffeine< Object, Object> caffeineConfig() {
-        return Caffeine.newBuilder()
-                .expireAfterWrite(30, TimeUnit.MINUTES)
-                .maximumSize(1000);
+    public CompressedCache scrapedPagesCache(ObjectMapper objectMapper, CachePolicy cachePolicy,
+                                             ObjectProvider<OffHeapContentStore> offHeapContentStore,
+                                             @Qualifier("scrapedPagesDiskStore") ObjectProvider<DiskCacheStore> diskStore) {
+        CompressedCache cache = new CompressedCache(SCRAPED_PAGES, scrapedPagesMaxBytes, Duration.ofHours(SCRAPE_STALE_RETENTION_HOURS),
+                objectMapper, objectMapper.constructType(ScrapeResult.class), offHeapContentStore.getIfAvailable(),
+                diskStore.getIfAvailable());
+        cache.setExpiryPolicy(cachePolicy::scrapeLifetime);
+        return cache;
     }
 
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("searchResults", "scrapedPages");
-        cacheManager.setCaffeine(caffeine);
+    public CacheManager cacheManager(CompressedCache searchResultsCache, CompressedCache scrapedPagesCache) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(searchResultsCache, scrapedPagesCache));
         return cacheManager;
     }
 }
@@ -0,0 +1,422 @@
+package com.mcp.webScraper.Configs;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Spring cache over Caffeine that keeps each value as deflated UTF-8 JSON instead of live objects.
+ * Entries are weighed by their stored bytes against a per-cache byte budget, and only decoded on a hit,
+ * so a cache of 5 KB pages and a cache of short result lists both hold as much as their budget allows.
+ * With an OffHeapContentStore, larger values live off-heap and Caffeine only indexes their slots.
+ * With a DiskCacheStore, every write is also appended to disk in the background and a miss falls back to it,
+ * so entries evicted for space, or lost to a restart, are read back instead of fetched again until they expire.
+ * Each value gets its own Lifetime from the ExpiryPolicy; once past its fresh part, a value read through
+ * get(key, valueLoader) (i.e. {@code @Cacheable(sync = true)}) is still returned while a single background load replaces it.
+ */
+public class CompressedCache extends AbstractValueAdaptingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressedCache.class);
+
+    // Values smaller than this are stored uncompressed
+    private static final int COMPRESS_MIN_BYTES = 256;
+
+    // Approximate per-entry heap cost of the Caffeine node, key and Entry header
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    // Values at least this large go off-heap when a store is configured
+    private static final int OFF_HEAP_MIN_BYTES = 1024;
+
+    private final String name;
+    private final long maxBytes;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Entry> cache;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final OffHeapContentStore offHeapStore;
+    private final DiskCacheStore diskStore;
+    private volatile ExpiryPolicy expiryPolicy;
+
+    // Keys being reloaded in the background, so a hot key is only refreshed once at a time
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+
+    // Slots reused by the off-heap store, whose index entries are dropped once outside any cache compute
+    private final ConcurrentLinkedQueue<OffHeapContentStore.Slot> evictedSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicLong staleHits = new AtomicLong(0);
+    private final AtomicLong refreshes = new AtomicLong(0);
+    private final AtomicLong refreshFailures = new AtomicLong(0);
+
+    public CompressedCache(String name, long maxBytes, Duration expireAfterWrite, ObjectMapper objectMapper, JavaType type) {
+        this(name, maxBytes, expireAfterWrite, objectMapper, type, null, null);
+    }
+
+    public CompressedCache(String name, long maxBytes, Duration expireAfterWrite, ObjectMapper objectMapper, JavaType type,
+                           OffHeapContentStore offHeapStore) {
+        this(name, maxBytes, expireAfterWrite, objectMapper, type, offHeapStore, null);
+    }
+
+    /**
+     * @param offHeapStore where values of OFF_HEAP_MIN_BYTES or more are kept, or null to keep everything on-heap.
+     *                     maxBytes then only bounds the on-heap index and small values.
+     * @param diskStore    second tier behind this cache for String keys, or null to keep it in memory only
+     */
+    public CompressedCache(String name, long maxBytes, Duration expireAfterWrite, ObjectMapper objectMapper, JavaType type,
+                           OffHeapContentStore offHeapStore, DiskCacheStore diskStore) {
+        super(false);
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.writer = objectMapper.writerFor(type);
+        this.reader = objectMapper.readerFor(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.offHeapStore = offHeapStore;
+        this.diskStore = diskStore;
+        this.expiryPolicy = (key, value) -> new Lifetime(expireAfterWrite, Duration.ZERO);
+        // Each entry expires at the time it was first written, also when read back from disk
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(Expiry.writing((Object key, Entry entry) ->
+                        Duration.ofMillis(Math.max(0, entry.expiresAt - System.currentTimeMillis()))))
+                .maximumWeight(maxBytes)
+                .weigher((Object key, Entry entry) -> entry.weight(key))
+                .removalListener((Object key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null && entry.slot != null) offHeapStore.free(entry.slot);
+                })
+                .recordStats()
+                .build();
+
+        // The store evicts while a value is placed, which may happen inside the compute of another key,
+        // where Caffeine forbids touching other mappings; the victims are queued and dropped afterwards
+        if (offHeapStore != null) {
+            offHeapStore.setEvictionListener(evictedSlots::add);
+        }
+    }
+
+    /**
+     * Replaces the fixed expireAfterWrite given to the constructor with a lifetime chosen per value.
+     */
+    public void setExpiryPolicy(ExpiryPolicy expiryPolicy) {
+        this.expiryPolicy = expiryPolicy;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = diskStore != null ? cache.get(key, this::fromDisk) : cache.getIfPresent(key);
+        dropEvicted();
+        return entry != null ? onHeap(key, entry) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = cache.get(key, k -> {
+            Entry stored = diskStore != null ? fromDisk(k) : null;
+            if (stored != null) return stored;
+            try {
+                return encode(k, valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+        });
+        dropEvicted();
+
+        Entry loaded = onHeap(key, entry);
+        if (loaded == null) {
+            return get(key, valueLoader);
+        }
+        if (loaded.refreshAt <= System.currentTimeMillis()) {
+            refresh(key, valueLoader);
+        }
+        return (T) fromStoreValue(loaded);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            cache.invalidate(key);
+            return;
+        }
+        cache.put(key, encode(key, value));
+        dropEvicted();
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.invalidate(key);
+        if (diskStore != null && key instanceof String text) {
+            diskStore.remove(text);
+        }
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+        if (diskStore != null) {
+            diskStore.clear();
+        }
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        return encode(null, userValue);
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        return storeValue instanceof Entry entry ? decode(entry) : storeValue;
+    }
+
+    // CACHE INSIGHTS
+    public Map<String, Object> getCacheStatistics() {
+        long storedBytes = 0;
+        long rawBytes = 0;
+        for (Entry entry : cache.asMap().values()) {
+            storedBytes += entry.storedLength();
+            rawBytes += entry.rawLength;
+        }
+
+        CacheStats stats = cache.stats();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("entries", cache.estimatedSize());
+        report.put("maxBytes", maxBytes);
+        report.put("weightedBytes", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        report.put("storedBytes", storedBytes);
+        report.put("rawBytes", rawBytes);
+        report.put("compressionRatio", storedBytes > 0 ? Math.round(rawBytes * 100.0 / storedBytes) / 100.0 : 0);
+        report.put("hits", stats.hitCount());
+        report.put("misses", stats.missCount());
+        report.put("hitRate", Math.round(stats.hitRate() * 1000) / 1000.0);
+        report.put("evictions", stats.evictionCount());
+        if (offHeapStore != null) {
+            report.put("offHeap", offHeapStore.getStoreStatistics());
+        }
+        report.put("staleHits", staleHits.get());
+        report.put("refreshes", refreshes.get());
+        report.put("refreshFailures", refreshFailures.get());
+        if (diskStore != null) {
+            report.put("disk", diskStore.getStoreStatistics());
+        }
+        return report;
+    }
+
+    // The caller gets the stale value; a failed reload keeps serving it until it expires
+    private void refresh(Object key, Callable<?> valueLoader) {
+        staleHits.incrementAndGet();
+        if (!refreshing.add(key)) return;
+
+        Thread.ofVirtual().name("cache-refresh-" + name).start(() -> {
+            try {
+                Object value = valueLoader.call();
+                if (value != null && !expiryPolicy.lifetimeOf(key, value).negative()) {
+                    put(key, value);
+                    refreshes.incrementAndGet();
+                } else {
+                    refreshFailures.incrementAndGet();
+                }
+            } catch (Exception e) {
+                refreshFailures.incrementAndGet();
+                log.debug("Refresh of {} entry {} failed: {}", name, key, e.getMessage());
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    // A reused slot drops its index entry, unless the key was overwritten since
+    private void dropEvicted() {
+        OffHeapContentStore.Slot slot;
+        while ((slot = evictedSlots.poll()) != null) {
+            OffHeapContentStore.Slot victim = slot;
+            cache.asMap().computeIfPresent(victim.getKey(), (key, entry) -> entry.slot == victim ? null : entry);
+        }
+    }
+
+    // Copies an off-heap value on-heap now, since its slot may be reused as soon as the store lock is released.
+    // Returns null and drops the entry if the slot was already reused.
+    private Entry onHeap(Object key, Entry entry) {
+        if (entry.slot == null) return entry;
+
+        byte[] data = offHeapStore.read(entry.slot);
+        if (data == null) {
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        return new Entry(data, entry.rawLength, entry.compressed, entry.refreshAt, entry.expiresAt);
+    }
+
+    // Entry written by this or a previous run, or null if the disk has none that is still valid
+    private Entry fromDisk(Object key) {
+        if (!(key instanceof String text)) return null;
+        DiskCacheStore.Stored stored = diskStore.get(text);
+        return stored != null
+                ? place(key, stored.data(), stored.rawLength(), stored.compressed(), stored.refreshAt(), stored.expiresAt())
+                : null;
+    }
+
+    // key is only needed to store the value off-heap and on disk
+    private Entry encode(Object key, Object value) {
+        try {
+            byte[] raw = writer.writeValueAsBytes(value);
+            boolean compressed = raw.length >= COMPRESS_MIN_BYTES;
+            byte[] data = compressed ? deflate(raw) : raw;
+            Lifetime lifetime = expiryPolicy.lifetimeOf(key, value);
+            long refreshAt = System.currentTimeMillis() + lifetime.fresh().toMillis();
+            long expiresAt = refreshAt + lifetime.stale().toMillis();
+
+            if (diskStore != null && key instanceof String text) {
+                diskStore.put(text, data, raw.length, compressed, refreshAt, expiresAt);
+            }
+            return place(key, data, raw.length, compressed, refreshAt, expiresAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot encode " + name + " entry", e);
+        }
+    }
+
+    private Entry place(Object key, byte[] data, int rawLength, boolean compressed, long refreshAt, long expiresAt) {
+        if (key != null && compressed && offHeapStore != null && data.length >= OFF_HEAP_MIN_BYTES) {
+            OffHeapContentStore.Slot slot = offHeapStore.put(key, data);
+            if (slot != null) {
+                return new Entry(slot, rawLength, refreshAt, expiresAt);
+            }
+        }
+        return new Entry(data, rawLength, compressed, refreshAt, expiresAt);
+    }
+
+    private Object decode(Entry entry) {
+        try {
+            return reader.readValue(entry.compressed ? inflate(entry.data, entry.rawLength) : entry.data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode " + name + " entry", e);
+        }
+    }
+
+    static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] data, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                read += n;
+            }
+            if (read != rawLength) throw new IOException("Truncated entry");
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * How long a value is served as-is, then how much longer it may be served stale while reloaded.
+     * A negative lifetime marks a failure: cached briefly, but never allowed to replace a stale value.
+     */
+    public record Lifetime(Duration fresh, Duration stale, boolean negative) {
+
+        public Lifetime(Duration fresh, Duration stale) {
+            this(fresh, stale, false);
+        }
+
+        public static Lifetime negative(Duration ttl) {
+            return new Lifetime(ttl, Duration.ZERO, true);
+        }
+    }
+
+    /**
+     * Chooses the lifetime of each value as it is written; key is null for values stored without one.
+     */
+    @FunctionalInterface
+    public interface ExpiryPolicy {
+        Lifetime lifetimeOf(Object key, Object value);
+    }
+
+    /**
+     * A stored value: JSON bytes, deflated when large enough to be worth it, on-heap or in an off-heap slot.
+     */
+    static final class Entry {
+        final byte[] data;
+        final OffHeapContentStore.Slot slot;
+        final int rawLength;
+        final boolean compressed;
+        // Epoch millis, carried over to disk so a restart does not extend an entry's life
+        final long refreshAt;
+        final long expiresAt;
+
+        Entry(byte[] data, int rawLength, boolean compressed, long refreshAt, long expiresAt) {
+            this.data = data;
+            this.slot = null;
+            this.rawLength = rawLength;
+            this.compressed = compressed;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+
+        Entry(OffHeapContentStore.Slot slot, int rawLength, long refreshAt, long expiresAt) {
+            this.data = null;
+            this.slot = slot;
+            this.rawLength = rawLength;
+            this.compressed = true;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+
+        int storedLength() {
+            return data != null ? data.length : slot.getLength();
+        }
+
+        // Heap bytes only: off-heap values are bounded by the store's own budget
+        int weight(Object key) {
+            int keyBytes = key instanceof String text ? text.length() * 2 : 16;
+            return (data != null ? data.length : 0) + keyBytes + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.mcp.webScraper.Configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Second cache tier on local disk, so a restarted instance comes back with a warm cache.
+ * Values are appended to segment files as checksummed records and located through an in-memory index
+ * that is rebuilt by scanning the segments on startup; a torn or corrupt tail is cut off at the last good record.
+ * All writes go through one background thread, which also rolls segments, compacts segments that are
+ * mostly dead or expired, and drops the oldest segments once the directory outgrows its budget.
+ */
+public class DiskCacheStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DiskCacheStore.class);
+
+    // magic, crc, key length, value length, raw length, flags, refresh at, expires at
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 4 + 1 + 8 + 8;
+    private static final int MAGIC = 0x57534332; // "WSC2"
+    private static final int TOMBSTONE = -1;
+    private static final byte FLAG_COMPRESSED = 1;
+
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final double COMPACT_LIVE_RATIO = 0.5;
+    private static final int WRITE_QUEUE_SIZE = 10_000;
+    private static final int MAX_KEY_BYTES = 4096;
+
+    private final String name;
+    private final Path directory;
+    private final long maxBytes;
+    private final long segmentBytes;
+    private final ConcurrentHashMap<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor writer;
+
+    // Touched by the writer thread only
+    private Segment active;
+    private boolean compacting;
+    // Removed keys and the segment holding their tombstone, kept while an older segment may still hold the key
+    private final Map<String, Integer> tombstones = new HashMap<>();
+
+    private final AtomicLong reads = new AtomicLong(0);
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong writes = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong corrupt = new AtomicLong(0);
+    private final AtomicLong compactions = new AtomicLong(0);
+
+    public DiskCacheStore(String name, Path directory, long maxBytes) throws IOException {
+        this(name, directory, maxBytes, SEGMENT_BYTES);
+    }
+
+    public DiskCacheStore(String name, Path directory, long maxBytes, long segmentBytes) throws IOException {
+        this.name = name;
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        long start = System.currentTimeMillis();
+        recover();
+        log.info("Disk cache '{}' loaded {} entries from {} segments in {} ms",
+                name, index.size(), segments.size(), System.currentTimeMillis() - start);
+
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(WRITE_QUEUE_SIZE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "disk-cache-" + name);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> onDropped());
+    }
+
+    /**
+     * Reads a value written for the key, or null if absent, expired or failing its checksum.
+     */
+    public Stored get(String key) {
+        Location location = index.get(key);
+        if (location == null) return null;
+        reads.incrementAndGet();
+
+        if (location.expiresAt <= System.currentTimeMillis()) {
+            index.remove(key, location);
+            return null;
+        }
+
+        Stored stored = read(key, location);
+        if (stored != null) hits.incrementAndGet();
+        return stored;
+    }
+
+    /**
+     * Queues the value to be appended; dropped if the writer is too far behind.
+     */
+    public void put(String key, byte[] value, int rawLength, boolean compressed, long refreshAt, long expiresAt) {
+        if (key.length() > MAX_KEY_BYTES) return;
+        writer.execute(() -> append(key, value, rawLength, compressed, refreshAt, expiresAt));
+    }
+
+    /**
+     * Queues a tombstone so the key does not come back after a restart.
+     */
+    public void remove(String key) {
+        writer.execute(() -> append(key, null, 0, false, Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    public void clear() {
+        writer.execute(() -> {
+            index.clear();
+            tombstones.clear();
+            for (Segment segment : List.copyOf(segments.values())) {
+                if (segment != active) deleteSegment(segment);
+            }
+            try {
+                active.channel.truncate(0);
+                active.size = 0;
+                active.liveBytes = 0;
+            } catch (IOException e) {
+                log.warn("Disk cache '{}' could not be cleared: {}", name, e.getMessage());
+            }
+        });
+    }
+
+    // DISK CACHE INSIGHTS
+    public Map<String, Object> getStoreStatistics() {
+        long bytes = 0;
+        long liveBytes = 0;
+        for (Segment segment : segments.values()) {
+            bytes += segment.size;
+            liveBytes += segment.liveBytes;
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", index.size());
+        stats.put("segments", segments.size());
+        stats.put("bytes", bytes);
+        stats.put("liveBytes", liveBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("reads", reads.get());
+        stats.put("hits", hits.get());
+        stats.put("writes", writes.get());
+        stats.put("queued", writer.getQueue().size());
+        stats.put("dropped", dropped.get());
+        stats.put("corrupt", corrupt.get());
+        stats.put("compactions", compactions.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.force(false);
+                segment.channel.close();
+            } catch (IOException e) {
+                log.debug("Disk cache '{}' could not close segment {}: {}", name, segment.id, e.getMessage());
+            }
+        }
+    }
+
+    // Runs on the writer thread
+    private void append(String key, byte[] value, int rawLength, boolean compressed, long refreshAt, long expiresAt) {
+        try {
+            ByteBuffer record = Record.encode(key, value, rawLength, compressed, refreshAt, expiresAt);
+            if (active.size + record.remaining() > segmentBytes && active.size > 0) {
+                roll();
+            }
+
+            long offset = active.size;
+            int length = record.remaining();
+            while (record.hasRemaining()) {
+                active.channel.write(record, active.size + (length - record.remaining()));
+            }
+            active.size += length;
+            writes.incrementAndGet();
+
+            Location previous = value != null
+                    ? index.put(key, new Location(active.id, offset, length, expiresAt))
+                    : index.remove(key);
+            if (value != null) active.liveBytes += length;
+            if (previous != null) release(previous);
+            if (value != null) tombstones.remove(key);
+            else tombstones.put(key, active.id);
+        } catch (IOException e) {
+            log.warn("Disk cache '{}' write failed: {}", name, e.getMessage());
+        }
+    }
+
+    private void roll() throws IOException {
+        active.channel.force(false);
+        Segment sealed = active;
+        active = openSegment(sealed.id + 1);
+
+        compact();
+        enforceBudget();
+    }
+
+    // Rewrites the live, unexpired records of mostly-dead sealed segments into the active one.
+    // Tombstones move along while an older segment exists, as it may still hold the removed key.
+    private void compact() {
+        if (compacting) return;
+        compacting = true;
+        try {
+            for (Segment segment : List.copyOf(segments.values())) {
+                if (segment == active || segment.size == 0) continue;
+                if (segment.liveBytes >= segment.size * COMPACT_LIVE_RATIO) continue;
+
+                long now = System.currentTimeMillis();
+                for (Map.Entry<String, Location> entry : index.entrySet()) {
+                    Location location = entry.getValue();
+                    if (location.segment != segment.id) continue;
+                    Stored stored = location.expiresAt > now ? read(entry.getKey(), location) : null;
+                    if (stored != null) {
+                        append(entry.getKey(), stored.data, stored.rawLength, stored.compressed, stored.refreshAt, stored.expiresAt);
+                    }
+                }
+                index.values().removeIf(location -> location.segment == segment.id);
+
+                boolean olderSegments = segments.keySet().stream().anyMatch(id -> id < segment.id);
+                List<String> removed = tombstones.entrySet().stream()
+                        .filter(entry -> entry.getValue() == segment.id)
+                        .map(Map.Entry::getKey)
+                        .toList();
+                for (String key : removed) {
+                    if (olderSegments) append(key, null, 0, false, Long.MAX_VALUE, Long.MAX_VALUE);
+                    else tombstones.remove(key);
+                }
+                deleteSegment(segment);
+                compactions.incrementAndGet();
+            }
+        } finally {
+            compacting = false;
+        }
+    }
+
+    // Oldest segments go first once the directory is over budget
+    private void enforceBudget() {
+        TreeMap<Integer, Segment> byAge = new TreeMap<>(segments);
+        long total = byAge.values().stream().mapToLong(segment -> segment.size).sum();
+        for (Segment segment : byAge.values()) {
+            if (total <= maxBytes || segment == active) break;
+            total -= segment.size;
+            index.values().removeIf(location -> location.segment == segment.id);
+            // Nothing older is left for these tombstones to hide
+            tombstones.values().removeIf(id -> id == segment.id);
+            deleteSegment(segment);
+        }
+    }
+
+    // Writes are dropped rather than blocking callers; the first drop and then every power of two is logged
+    private void onDropped() {
+        long count = dropped.incrementAndGet();
+        if (Long.bitCount(count) == 1) {
+            log.warn("Disk cache '{}' write queue is full, {} writes dropped so far", name, count);
+        }
+    }
+
+    private Stored read(String key, Location location) {
+        Segment segment = segments.get(location.segment);
+        if (segment == null) return null;
+
+        try {
+            ByteBuffer record = ByteBuffer.allocate(location.length);
+            segment.channel.read(record, location.offset);
+            record.flip();
+            Record parsed = Record.parse(record);
+            if (parsed == null || !parsed.key.equals(key) || parsed.value == null) {
+                corrupt.incrementAndGet();
+                index.remove(key, location);
+                return null;
+            }
+            return new Stored(parsed.value, parsed.rawLength, parsed.compressed, parsed.refreshAt, parsed.expiresAt);
+        } catch (IOException e) {
+            // Segment deleted by compaction between the index lookup and the read
+            log.debug("Disk cache '{}' read of {} failed: {}", name, key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void release(Location location) {
+        Segment segment = segments.get(location.segment);
+        if (segment != null) segment.liveBytes -= location.length;
+    }
+
+    private void deleteSegment(Segment segment) {
+        segments.remove(segment.id);
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Disk cache '{}' could not delete segment {}: {}", name, segment.id, e.getMessage());
+        }
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Path path = directory.resolve(String.format("segment-%06d.log", id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel);
+        segment.size = channel.size();
+        segments.put(id, segment);
+        return segment;
+    }
+
+    // Replays all segments in order; later records win and tombstones delete
+    private void recover() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(file -> file.matches("segment-\\d{6}\\.log"))
+                    .forEach(file -> ids.add(Integer.parseInt(file.substring(8, 14))));
+        }
+        ids.sort(null);
+
+        long now = System.currentTimeMillis();
+        for (int id : ids) {
+            Segment segment = openSegment(id);
+            long offset = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+            while (offset + HEADER_BYTES <= segment.size) {
+                header.clear();
+                segment.channel.read(header, offset);
+                header.flip();
+                int length = Record.lengthOf(header);
+                if (length < 0 || offset + length > segment.size) break;
+
+                ByteBuffer record = ByteBuffer.allocate(length);
+                segment.channel.read(record, offset);
+                record.flip();
+                Record parsed = Record.parse(record);
+                if (parsed == null) break;
+
+                Location previous = parsed.value == null || parsed.expiresAt <= now
+                        ? index.remove(parsed.key)
+                        : index.put(parsed.key, new Location(id, offset, length, parsed.expiresAt));
+                if (parsed.value != null && parsed.expiresAt > now) segment.liveBytes += length;
+                if (previous != null) release(previous);
+                if (parsed.value != null) tombstones.remove(parsed.key);
+                else tombstones.put(parsed.key, id);
+                offset += length;
+            }
+
+            if (offset < segment.size) {
+                log.warn("Disk cache '{}' segment {} truncated at {} of {} bytes", name, id, offset, segment.size);
+                corrupt.incrementAndGet();
+                segment.channel.truncate(offset);
+                segment.size = offset;
+            }
+        }
+
+        // Keep appending to the last segment unless it is full
+        Segment last = ids.isEmpty() ? null : segments.get(ids.getLast());
+        active = last != null && last.size < segmentBytes ? last : openSegment(ids.isEmpty() ? 1 : ids.getLast() + 1);
+    }
+
+    /**
+     * A value read back from disk.
+     */
+    public record Stored(byte[] data, int rawLength, boolean compressed, long refreshAt, long expiresAt) {
+    }
+
+    private record Location(int segment, long offset, int length, long expiresAt) {
+    }
+
+    private static final class Segment {
+        final int id;
+        final Path path;
+        final FileChannel channel;
+        volatile long size;
+        volatile long liveBytes;
+
+        Segment(int id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    private record Record(String key, byte[] value, int rawLength, boolean compressed, long refreshAt, long expiresAt) {
+
+        static ByteBuffer encode(String key, byte[] value, int rawLength, boolean compressed, long refreshAt, long expiresAt) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            int valueLength = value != null ? value.length : TOMBSTONE;
+            ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + keyBytes.length + Math.max(0, valueLength));
+            record.putInt(MAGIC).putInt(0)
+                    .putInt(keyBytes.length).putInt(valueLength).putInt(rawLength)
+                    .put(compressed ? FLAG_COMPRESSED : 0).putLong(refreshAt).putLong(expiresAt)
+                    .put(keyBytes);
+            if (value != null) record.put(value);
+            record.putInt(4, checksum(record.array(), record.position()));
+            return record.flip();
+        }
+
+        // Total record length from its header, or -1 if the header is not a record
+        static int lengthOf(ByteBuffer header) {
+            if (header.getInt(0) != MAGIC) return -1;
+            int keyLength = header.getInt(8);
+            int valueLength = header.getInt(12);
+            if (keyLength < 0 || keyLength > MAX_KEY_BYTES * 4 || valueLength < TOMBSTONE) return -1;
+            return HEADER_BYTES + keyLength + Math.max(0, valueLength);
+        }
+
+        // Null if the record is torn or its checksum does not match
+        static Record parse(ByteBuffer record) {
+            if (record.remaining() < HEADER_BYTES || lengthOf(record) != record.remaining()) return null;
+            if (record.getInt(4) != checksum(record.array(), record.remaining())) return null;
+
+            int keyLength = record.getInt(8);
+            int valueLength = record.getInt(12);
+            int rawLength = record.getInt(16);
+            boolean compressed = (record.get(20) & FLAG_COMPRESSED) != 0;
+            long refreshAt = record.getLong(21);
+            long expiresAt = record.getLong(29);
+
+            String key = new String(record.array(), HEADER_BYTES, keyLength, StandardCharsets.UTF_8);
+            byte[] value = null;
+            if (valueLength != TOMBSTONE) {
+                value = new byte[valueLength];
+                System.arraycopy(record.array(), HEADER_BYTES + keyLength, value, 0, valueLength);
+            }
+            return new Record(key, value, rawLength, compressed, refreshAt, expiresAt);
+        }
+
+        // CRC32C of everything after the checksum field
+        private static int checksum(byte[] record, int length) {
+            CRC32C crc = new CRC32C();
+            crc.update(record, 8, length - 8);
+            return (int) crc.getValue();
+        }
+    }
+}
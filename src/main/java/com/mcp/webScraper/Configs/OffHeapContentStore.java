@@ -0,0 +1,266 @@
+package com.mcp.webScraper.Configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Slab allocator for cached page bodies outside the Java heap.
+ * Memory is reserved from a shared Arena in fixed-size slabs, each slab is dedicated to one size class
+ * and carved into equal chunks, and every class keeps its own LRU. When a class has no free chunk and
+ * no slab is left, its least recently used chunk is reused and its owner told through the eviction listener.
+ * The heap only holds the Slot handles; the bytes never become GC-visible until they are read.
+ */
+public class OffHeapContentStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapContentStore.class);
+
+    private static final int SLAB_BYTES = 1024 * 1024;
+    private static final int MIN_CHUNK_BYTES = 512;
+    private static final double CHUNK_GROWTH_FACTOR = 1.25;
+    private static final int CHUNK_ALIGNMENT = 64;
+
+    private final Arena arena = Arena.ofShared();
+    private final int maxSlabs;
+    private final List<MemorySegment> slabs = new ArrayList<>();
+    private final SizeClass[] classes;
+    private volatile Consumer<Slot> evictionListener = slot -> {};
+    private boolean closed;
+
+    private long stored;
+    private long evicted;
+    private long rejected;
+    private long usedBytes;
+
+    public OffHeapContentStore(long maxBytes) {
+        // Capped so chunk ids of the smallest class still fit in an int
+        this.maxSlabs = (int) Math.max(1, Math.min(1 << 19, maxBytes / SLAB_BYTES));
+
+        // Memcached-style classes growing by CHUNK_GROWTH_FACTOR, so no chunk wastes more than ~20%
+        List<SizeClass> sizes = new ArrayList<>();
+        for (double size = MIN_CHUNK_BYTES; size < SLAB_BYTES; size *= CHUNK_GROWTH_FACTOR) {
+            int chunk = ((int) size + CHUNK_ALIGNMENT - 1) / CHUNK_ALIGNMENT * CHUNK_ALIGNMENT;
+            if (sizes.isEmpty() || sizes.getLast().chunkBytes < chunk) {
+                sizes.add(new SizeClass(chunk));
+            }
+        }
+        sizes.add(new SizeClass(SLAB_BYTES));
+        this.classes = sizes.toArray(SizeClass[]::new);
+
+        log.info("Off-heap content store: {} MB in {} KB slabs, {} size classes",
+                (long) maxSlabs * SLAB_BYTES >> 20, SLAB_BYTES >> 10, classes.length);
+    }
+
+    /**
+     * Called with each slot whose chunk was reused for another value.
+     */
+    public void setEvictionListener(Consumer<Slot> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Copies the bytes off-heap. Returns null if they are larger than a slab or their size class
+     * has no room and nothing to evict, in which case the caller keeps them on-heap.
+     */
+    public Slot put(Object key, byte[] data) {
+        SizeClass sizeClass = classFor(data.length);
+        if (sizeClass == null) {
+            synchronized (this) {
+                rejected++;
+            }
+            return null;
+        }
+
+        Slot slot;
+        Slot victim = null;
+        synchronized (this) {
+            if (closed) return null;
+
+            int chunk = sizeClass.freeChunks.pop();
+            if (chunk < 0 && slabs.size() < maxSlabs) {
+                addSlab(sizeClass);
+                chunk = sizeClass.freeChunks.pop();
+            }
+            if (chunk < 0) {
+                victim = sizeClass.evictEldest();
+                if (victim == null) {
+                    rejected++;
+                    return null;
+                }
+                release(victim);
+                evicted++;
+                chunk = sizeClass.freeChunks.pop();
+            }
+
+            slot = new Slot(key, sizeClass, chunk, data.length);
+            MemorySegment.copy(data, 0, slabOf(sizeClass, chunk), ValueLayout.JAVA_BYTE, offsetOf(sizeClass, chunk), data.length);
+            sizeClass.lru.put(slot, Boolean.TRUE);
+            usedBytes += data.length;
+            stored++;
+        }
+
+        if (victim != null) {
+            evictionListener.accept(victim);
+        }
+        return slot;
+    }
+
+    /**
+     * Copies the bytes of a slot back on-heap and marks it recently used; null if it was evicted or freed.
+     */
+    public synchronized byte[] read(Slot slot) {
+        if (!slot.live || closed) return null;
+
+        slot.sizeClass.lru.get(slot);
+        byte[] data = new byte[slot.length];
+        MemorySegment.copy(slabOf(slot.sizeClass, slot.chunk), ValueLayout.JAVA_BYTE, offsetOf(slot.sizeClass, slot.chunk), data, 0, slot.length);
+        return data;
+    }
+
+    /**
+     * Returns the chunk of a slot to its size class; freeing a slot twice is a no-op.
+     */
+    public synchronized void free(Slot slot) {
+        if (!slot.live) return;
+        slot.sizeClass.lru.remove(slot);
+        release(slot);
+    }
+
+    // OFF-HEAP INSIGHTS
+    public synchronized Map<String, Object> getStoreStatistics() {
+        int classesInUse = 0;
+        long entries = 0;
+        for (SizeClass sizeClass : classes) {
+            if (sizeClass.slabs > 0) classesInUse++;
+            entries += sizeClass.lru.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxBytes", (long) maxSlabs * SLAB_BYTES);
+        stats.put("reservedBytes", (long) slabs.size() * SLAB_BYTES);
+        stats.put("usedBytes", usedBytes);
+        stats.put("entries", entries);
+        stats.put("slabs", slabs.size());
+        stats.put("sizeClassesInUse", classesInUse);
+        stats.put("stored", stored);
+        stats.put("evicted", evicted);
+        stats.put("rejected", rejected);
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        arena.close();
+        log.info("Off-heap content store released {} slabs", slabs.size());
+    }
+
+    private void addSlab(SizeClass sizeClass) {
+        int slab = slabs.size();
+        slabs.add(arena.allocate(SLAB_BYTES, CHUNK_ALIGNMENT));
+        sizeClass.slabIds = Arrays.copyOf(sizeClass.slabIds, sizeClass.slabs + 1);
+        sizeClass.slabIds[sizeClass.slabs] = slab;
+
+        // Chunk ids are the slab's ordinal within the class times chunksPerSlab plus the chunk index
+        int first = sizeClass.slabs * sizeClass.chunksPerSlab;
+        for (int i = sizeClass.chunksPerSlab - 1; i >= 0; i--) {
+            sizeClass.freeChunks.push(first + i);
+        }
+        sizeClass.slabs++;
+    }
+
+    private void release(Slot slot) {
+        slot.live = false;
+        slot.sizeClass.freeChunks.push(slot.chunk);
+        usedBytes -= slot.length;
+    }
+
+    private MemorySegment slabOf(SizeClass sizeClass, int chunk) {
+        return slabs.get(sizeClass.slabIds[chunk / sizeClass.chunksPerSlab]);
+    }
+
+    private long offsetOf(SizeClass sizeClass, int chunk) {
+        return (long) (chunk % sizeClass.chunksPerSlab) * sizeClass.chunkBytes;
+    }
+
+    private SizeClass classFor(int length) {
+        for (SizeClass sizeClass : classes) {
+            if (sizeClass.chunkBytes >= length) return sizeClass;
+        }
+        return null;
+    }
+
+    /**
+     * Handle to a value stored off-heap. Only valid while live; the store reuses its chunk once freed or evicted.
+     */
+    public static final class Slot {
+        final Object key;
+        final SizeClass sizeClass;
+        final int chunk;
+        final int length;
+        boolean live = true;
+
+        Slot(Object key, SizeClass sizeClass, int chunk, int length) {
+            this.key = key;
+            this.sizeClass = sizeClass;
+            this.chunk = chunk;
+            this.length = length;
+        }
+
+        public Object getKey() {
+            return key;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+
+    static final class SizeClass {
+        final int chunkBytes;
+        final int chunksPerSlab;
+        final IntStack freeChunks = new IntStack();
+        // Access-ordered, eldest first
+        final LinkedHashMap<Slot, Boolean> lru = new LinkedHashMap<>(16, 0.75f, true);
+        int[] slabIds = new int[0];
+        int slabs;
+
+        SizeClass(int chunkBytes) {
+            this.chunkBytes = chunkBytes;
+            this.chunksPerSlab = SLAB_BYTES / chunkBytes;
+        }
+
+        Slot evictEldest() {
+            Iterator<Slot> eldest = lru.keySet().iterator();
+            if (!eldest.hasNext()) return null;
+            Slot slot = eldest.next();
+            eldest.remove();
+            return slot;
+        }
+    }
+
+    static final class IntStack {
+        private int[] values = new int[64];
+        private int size;
+
+        void push(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int pop() {
+            return size > 0 ? values[--size] : -1;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mcp.webScraper.Controllers;
+
+import com.mcp.webScraper.Workers.BlocklistLearner;
+import com.mcp.webScraper.Workers.RequestBlocklist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/blocklist")
+public class BlocklistController {
+
+    @Autowired
+    private BlocklistLearner blocklistLearner;
+
+    @Autowired
+    private RequestBlocklist requestBlocklist;
+
+    @GetMapping
+    public ResponseEntity<?> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rules", requestBlocklist.getBlocklistStatistics());
+        report.put("learner", blocklistLearner.getLearnerStatistics());
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    // Pins a host to always (block=true) or never (block=false) be blocked
+    @PutMapping("/pins/{host}")
+    public ResponseEntity<?> pin(@PathVariable String host, @RequestParam(defaultValue = "true") boolean block) {
+        if (host.isBlank() || !host.contains("."))
+            return new ResponseEntity<>(Map.of("error", "Not a valid host"), HttpStatus.BAD_REQUEST);
+
+        blocklistLearner.pin(host, block);
+        return new ResponseEntity<>(Map.of("host", host.toLowerCase(), "block", block), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/pins/{host}")
+    public ResponseEntity<?> unpin(@PathVariable String host) {
+        blocklistLearner.unpin(host);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -1,13 +1,27 @@
 package com.mcp.webScraper.Controllers;
 
+import com.mcp.webScraper.Configs.CompressedCache;
+import com.mcp.webScraper.Services.PrefetchServices;
+import com.mcp.webScraper.Workers.ContentDeduplicator;
+import com.mcp.webScraper.Workers.ContentProcessor;
+import com.mcp.webScraper.Workers.HostRateLimiter;
+import com.mcp.webScraper.Workers.HttpFetchClient;
 import com.mcp.webScraper.Workers.PlaywrightAllocator;
+import com.mcp.webScraper.Workers.RequestBlocklist;
+import com.mcp.webScraper.Workers.SimilarQueryIndex;
+import com.mcp.webScraper.Workers.StealthPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Profile("prod")
 @RestController
 @RequestMapping("/api/v1/monitor")
@@ -16,10 +30,99 @@ public class MonitorController {
     @Autowired(required = false)
     private PlaywrightAllocator playwrightAllocator;
 
+    @Autowired(required = false)
+    private HttpFetchClient httpFetchClient;
+
+    @Autowired(required = false)
+    private HostRateLimiter hostRateLimiter;
+
+    @Autowired(required = false)
+    private PrefetchServices prefetchServices;
+
+    @Autowired(required = false)
+    private ContentProcessor contentProcessor;
+
+    @Autowired(required = false)
+    private RequestBlocklist requestBlocklist;
+
+    @Autowired(required = false)
+    private StealthPolicy stealthPolicy;
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    @Autowired(required = false)
+    private SimilarQueryIndex similarQueryIndex;
+
+    @Autowired(required = false)
+    private ContentDeduplicator contentDeduplicator;
+
     public ResponseEntity<?> reportMonitor() {
         if (playwrightAllocator.isHealthy())
             return new ResponseEntity<>(playwrightAllocator.getUsageStatistics(), HttpStatus.OK);
         else
             return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
     }
+
+    @GetMapping("/http")
+    public ResponseEntity<?> reportHttpPool() {
+        if (httpFetchClient == null)
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(httpFetchClient.getPoolStatistics(), HttpStatus.OK);
+    }
+
+    @GetMapping("/hosts")
+    public ResponseEntity<?> reportHosts() {
+        if (hostRateLimiter == null)
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(hostRateLimiter.getHostStatistics(), HttpStatus.OK);
+    }
+
+    @GetMapping("/prefetch")
+    public ResponseEntity<?> reportPrefetch() {
+        if (prefetchServices == null)
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(prefetchServices.getPrefetchStatistics(), HttpStatus.OK);
+    }
+
+    @GetMapping("/cpu")
+    public ResponseEntity<?> reportCpuPool() {
+        if (contentProcessor == null)
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(contentProcessor.getPoolStatistics(), HttpStatus.OK);
+    }
+
+    @GetMapping("/blocklist")
+    public ResponseEntity<?> reportBlocklist() {
+        if (requestBlocklist == null)
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(requestBlocklist.getBlocklistStatistics(), HttpStatus.OK);
+    }
+
+    @GetMapping("/stealth")
+    public ResponseEntity<?> reportStealth() {
+        if (stealthPolicy == null)
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        return new ResponseEntity<>(stealthPolicy.getStealthStatistics(), HttpStatus.OK);
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<?> reportCache() {
+        if (cacheManager == null)
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CompressedCache cache) {
+                report.put(name, cache.getCacheStatistics());
+            }
+        }
+        if (similarQueryIndex != null) {
+            report.put("similarQueries", similarQueryIndex.getIndexStatistics());
+        }
+        if (contentDeduplicator != null) {
+            report.put("contentDedup", contentDeduplicator.getDedupStatistics());
+        }
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
 }
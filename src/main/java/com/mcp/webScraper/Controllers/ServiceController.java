@@ -2,6 +2,8 @@ package com.mcp.webScraper.Controllers;
 
 import com.mcp.webScraper.Services.ScrapeServices;
 import com.mcp.webScraper.Services.SearchServices;
+import com.mcp.webScraper.Workers.ContentDeduplicator;
+import com.mcp.webScraper.Workers.StealthProfile;
 import com.mcp.webScraper.entity.RequestEntries;
 import com.mcp.webScraper.entity.ResponseEntries;
 import com.mcp.webScraper.entity.ScrapeResult;
@@ -31,16 +33,25 @@ public class ServiceController { //TODO: clean up and centralize exception handl
     @Autowired
     private SearchServices searchServices;
 
+    @Autowired
+    private ContentDeduplicator contentDeduplicator;
+
     @PostMapping("/search")
     public ResponseEntity<ResponseEntries> search(@Valid @RequestBody RequestEntries request) {
         long startTime = System.currentTimeMillis();
         ResponseEntries response = new ResponseEntries();
 
         try {
+            // Ranked mode scrapes more of each page, so prefetch with the same budget
+            int scrapeBudget = request.isRankPassages()
+                    ? ScrapeServices.rankedScrapeBudget(request.getMaxContentLength())
+                    : request.getMaxContentLength();
+
             List<SearchResult> results = searchServices.performSearch(
                     request.getRequestId(),
                     request.getQuery(),
-                    request.getResults()
+                    request.getResults(),
+                    scrapeBudget
             );
 
             if (results.isEmpty()) {
@@ -55,11 +66,18 @@ public class ServiceController { //TODO: clean up and centralize exception handl
 
             response.setSuccess(true);
             response.setUserQuery(request.getQuery());
-            response.setMessage("Search results found");
+            response.setMessage(results.getFirst().isApproximate()
+                    ? "Search results found for similar query '" + results.getFirst().getMatchedQuery() + "'"
+                    : "Search results found");
+            StealthProfile stealth = StealthProfile.parse(request.getStealth());
             for (SearchResult result : results) {
-                ScrapeResult scrapeResult = scrapeServices.scrapeContent(request.getRequestId(), result.getSource());
+                ScrapeResult scrapeResult = request.isRankPassages()
+                        ? scrapeServices.scrapeContentForQuery(request.getRequestId(), result.getSource(), request.getQuery(), request.getMaxContentLength(), stealth)
+                        : scrapeServices.scrapeContent(request.getRequestId(), result.getSource(), request.getMaxContentLength(), stealth);
                 result.setContent(scrapeResult.getContent());
             }
+            // Syndicated copies of one article are returned once
+            results = contentDeduplicator.collapse(results);
             response.setSearchResultList(results);
             response.addExecutionTime(startTime);
             return new ResponseEntity<>(response, HttpStatus.OK);
@@ -1,5 +1,6 @@
 package com.mcp.webScraper;
 
+import com.mcp.webScraper.Workers.HttpFetchClient;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
@@ -9,6 +10,7 @@ import org.springframework.cache.annotation.EnableCaching;
 public class WebScraperApplication {
 
 	public static void main(String[] args) {
+		HttpFetchClient.applyJvmNetworkSettings();
 		SpringApplication.run(WebScraperApplication.class, args);
 	}
 
@@ -0,0 +1,375 @@
+package com.mcp.webScraper.Workers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.JsonObject;
+import com.mcp.webScraper.entity.ScrapeResult;
+import com.microsoft.playwright.CDPSession;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.*;
+
+/**
+ * Learns which third-party hosts can be skipped without changing the extracted text.
+ * Every scraped page reports its third-party requests (host, type, bytes, time) from the CDP network events.
+ * Frequently seen hosts are blocked on a sample of pages as a trial. When the page still extracts to the
+ * same content as its previous scrape, the trial counts as safe. Hosts with enough safe trials since the last
+ * one that changed the content are added to the blocklist, and hosts that changed it too often are no longer
+ * trialled. Learned hosts and manual pins are persisted.
+ */
+@Service
+public class BlocklistLearner {
+
+    private static final Logger log = LoggerFactory.getLogger(BlocklistLearner.class);
+
+    private static final Set<String> SECOND_LEVEL_LABELS = Set.of("co", "com", "org", "net", "gov", "ac", "edu");
+
+    @Autowired
+    private RequestBlocklist requestBlocklist;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${blocklist.learnedFile:cache-data/learned-blocklist.json}")
+    private String learnedFile;
+
+    // Observed third-party hosts, bounded
+    private final Cache<String, HostStats> hosts = Caffeine.newBuilder()
+            .maximumSize(LEARN_MAX_HOSTS)
+            .build();
+
+    private final Set<String> learned = ConcurrentHashMap.newKeySet();
+    private final Map<String, Boolean> pins = new ConcurrentHashMap<>();
+    private final AtomicLong observedPages = new AtomicLong(0);
+    private final AtomicLong trialPages = new AtomicLong(0);
+
+    public BlocklistLearner() {
+    }
+
+    public BlocklistLearner(RequestBlocklist requestBlocklist, ObjectMapper objectMapper, String learnedFile) {
+        this.requestBlocklist = requestBlocklist;
+        this.objectMapper = objectMapper;
+        this.learnedFile = learnedFile;
+        init();
+    }
+
+    @PostConstruct
+    private void init() {
+        load();
+        publish();
+    }
+
+    /**
+     * Picks the hosts to block as a trial on the next page, usually none.
+     */
+    public Set<String> pickTrialHosts() {
+        if (ThreadLocalRandom.current().nextDouble() >= LEARN_TRIAL_RATE) {
+            return Set.of();
+        }
+
+        List<HostStats> candidates = new ArrayList<>();
+        for (HostStats stats : hosts.asMap().values()) {
+            if (stats.pages.get() >= LEARN_MIN_PAGES && !learned.contains(stats.host)
+                    && !pins.containsKey(stats.host) && stats.changed.get() < LEARN_MAX_CHANGED_TRIALS) {
+                candidates.add(stats);
+            }
+        }
+        if (candidates.isEmpty()) return Set.of();
+
+        // Biggest payoff first
+        candidates.sort(Comparator.comparingLong((HostStats stats) -> stats.bytes.get()).reversed());
+        Set<String> trial = new HashSet<>();
+        for (int i = 0; i < candidates.size() && trial.size() < LEARN_TRIAL_HOSTS; i++) {
+            trial.add(candidates.get(i).host);
+        }
+        return trial;
+    }
+
+    /**
+     * Starts recording the third-party requests of a page from its CDP network events.
+     */
+    public PageObservation observe(CDPSession cdp, String pageUrl, Set<String> trialHosts) {
+        PageObservation observation = new PageObservation(siteOf(hostOf(pageUrl)), trialHosts);
+        cdp.on("Network.requestWillBeSent", observation::onRequest);
+        cdp.on("Network.loadingFinished", observation::onFinished);
+        cdp.on("Network.loadingFailed", observation::onFailed);
+        return observation;
+    }
+
+    /**
+     * Judges the trial hosts a page actually tried to load, comparing the result with the previous scrape.
+     */
+    public void recordTrial(Set<String> trialHosts, ScrapeResult previous, ScrapeResult result) {
+        if (trialHosts == null || trialHosts.isEmpty()) return;
+
+        Boolean unchanged = null;
+        if (result == null || !result.isSuccess() || result.getContent() == null
+                || result.getContent().length() < LEARN_MIN_CONTENT_LENGTH) {
+            unchanged = false;
+        } else if (previous != null && previous.isSuccess() && previous.getContent() != null) {
+            unchanged = isSimilar(previous.getContent(), result.getContent());
+        }
+        if (unchanged == null) return; // nothing to compare with
+
+        boolean changedSet = false;
+        for (String host : trialHosts) {
+            HostStats stats = hosts.getIfPresent(host);
+            if (stats == null) continue;
+
+            if (unchanged) {
+                stats.safeTrials.incrementAndGet();
+            } else {
+                // A single bad scrape can be a flaky page, so start over rather than give up on the host
+                stats.changed.incrementAndGet();
+                stats.safeTrials.set(0);
+            }
+            if (unchanged && stats.safeTrials.get() >= LEARN_MIN_TRIALS && stats.changed.get() < LEARN_MAX_CHANGED_TRIALS
+                    && learned.add(host)) {
+                log.info("Learned to block {} ({} safe trials, {} KB over {} pages)",
+                        host, stats.safeTrials.get(), stats.bytes.get() / 1024, stats.pages.get());
+                changedSet = true;
+            }
+        }
+
+        if (changedSet) {
+            publish();
+            save();
+        }
+    }
+
+    /**
+     * Pins a host to always be blocked (true) or never be blocked (false).
+     */
+    public void pin(String host, boolean block) {
+        String normalized = host.trim().toLowerCase();
+        pins.put(normalized, block);
+        if (!block) learned.remove(normalized);
+        publish();
+        save();
+    }
+
+    public void unpin(String host) {
+        if (pins.remove(host.trim().toLowerCase()) != null) {
+            publish();
+            save();
+        }
+    }
+
+    // Pushes learned and pinned hosts into the compiled blocklist
+    private void publish() {
+        Set<String> blocked = new HashSet<>(learned);
+        Set<String> allowed = new HashSet<>();
+        pins.forEach((host, block) -> (block ? blocked : allowed).add(host));
+        blocked.removeAll(allowed);
+        requestBlocklist.update(blocked, allowed);
+    }
+
+    private synchronized void load() {
+        Path path = Path.of(learnedFile);
+        if (!Files.exists(path)) return;
+
+        try {
+            StoredRules stored = objectMapper.readValue(path.toFile(), StoredRules.class);
+            if (stored.learned != null) learned.addAll(stored.learned);
+            if (stored.pins != null) pins.putAll(stored.pins);
+            log.info("Loaded {} learned and {} pinned blocklist hosts", learned.size(), pins.size());
+        } catch (IOException e) {
+            log.warn("Could not read learned blocklist {}: {}", path, e.getMessage());
+        }
+    }
+
+    private synchronized void save() {
+        Path path = Path.of(learnedFile);
+        try {
+            StoredRules stored = new StoredRules();
+            stored.learned = new TreeSet<>(learned);
+            stored.pins = new TreeMap<>(pins);
+
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), "blocklist-", ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), stored);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write learned blocklist {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Same length within a few percent and nearly the same words
+    private static boolean isSimilar(String before, String after) {
+        int longer = Math.max(before.length(), after.length());
+        if (longer == 0) return true;
+        if (Math.abs(before.length() - after.length()) > longer * (1 - LEARN_SIMILARITY)) return false;
+
+        Set<String> a = new HashSet<>(List.of(before.toLowerCase().split(" ")));
+        Set<String> b = new HashSet<>(List.of(after.toLowerCase().split(" ")));
+        int union = a.size() + b.size();
+        a.retainAll(b);
+        union -= a.size();
+        return union == 0 || (double) a.size() / union >= LEARN_SIMILARITY;
+    }
+
+    static String hostOf(String url) {
+        String host = KeyCanonicalizer.host(url);
+        return host != null ? host : "";
+    }
+
+    // Approximate registrable domain: last two labels, three for "co.uk"-style suffixes
+    static String siteOf(String host) {
+        String[] labels = host.split("\\.");
+        if (labels.length <= 2) return host;
+
+        int keep = labels[labels.length - 1].length() == 2 && SECOND_LEVEL_LABELS.contains(labels[labels.length - 2]) ? 3 : 2;
+        return String.join(".", List.of(labels).subList(labels.length - keep, labels.length));
+    }
+
+    // LEARNER INSIGHTS
+    public Map<String, Object> getLearnerStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("observedPages", observedPages.get());
+        stats.put("trialPages", trialPages.get());
+        stats.put("learned", new TreeSet<>(learned));
+        stats.put("pins", new TreeMap<>(pins));
+
+        List<HostStats> top = new ArrayList<>(hosts.asMap().values());
+        top.sort(Comparator.comparingLong((HostStats host) -> host.bytes.get()).reversed());
+
+        Map<String, Map<String, Object>> perHost = new LinkedHashMap<>();
+        for (HostStats host : top.subList(0, Math.min(50, top.size()))) {
+            perHost.put(host.host, host.snapshot());
+        }
+        stats.put("topHosts", perHost);
+        return stats;
+    }
+
+    /**
+     * Third-party requests of one page, fed by CDP network events.
+     */
+    public class PageObservation {
+        private final String site;
+        private final Set<String> trialHosts;
+        private final Set<String> triedTrialHosts = Collections.synchronizedSet(new HashSet<>());
+        private final Set<String> seenHosts = Collections.synchronizedSet(new HashSet<>());
+        private final Map<String, PendingRequest> pending = new ConcurrentHashMap<>();
+
+        private PageObservation(String site, Set<String> trialHosts) {
+            this.site = site;
+            this.trialHosts = trialHosts;
+            observedPages.incrementAndGet();
+            if (!trialHosts.isEmpty()) trialPages.incrementAndGet();
+        }
+
+        private void onRequest(JsonObject event) {
+            String host = hostOf(event.getAsJsonObject("request").get("url").getAsString());
+            if (host.isEmpty() || siteOf(host).equals(site)) return;
+
+            String type = event.has("type") ? event.get("type").getAsString() : "Other";
+            pending.put(event.get("requestId").getAsString(),
+                    new PendingRequest(host, type, event.get("timestamp").getAsDouble()));
+
+            if (seenHosts.add(host)) {
+                hosts.get(host, HostStats::new).pages.incrementAndGet();
+            }
+        }
+
+        private void onFinished(JsonObject event) {
+            PendingRequest request = pending.remove(event.get("requestId").getAsString());
+            if (request == null) return;
+
+            long bytes = event.has("encodedDataLength") ? event.get("encodedDataLength").getAsLong() : 0;
+            long millis = (long) ((event.get("timestamp").getAsDouble() - request.started) * 1000);
+            hosts.get(request.host, HostStats::new).record(request.type, bytes, millis);
+        }
+
+        private void onFailed(JsonObject event) {
+            PendingRequest request = pending.remove(event.get("requestId").getAsString());
+            if (request == null) return;
+
+            if (event.has("blockedReason") && trialHosts.contains(request.host)) {
+                triedTrialHosts.add(request.host);
+            }
+        }
+
+        /**
+         * Returns the trial hosts that the page actually tried to load.
+         */
+        public Set<String> finish() {
+            pending.clear();
+            synchronized (triedTrialHosts) {
+                return Set.copyOf(triedTrialHosts);
+            }
+        }
+    }
+
+    private record PendingRequest(String host, String type, double started) {
+    }
+
+    /**
+     * Aggregated statistics of one third-party host.
+     */
+    private static class HostStats {
+        final String host;
+        final AtomicLong pages = new AtomicLong(0);
+        final AtomicLong requests = new AtomicLong(0);
+        final AtomicLong bytes = new AtomicLong(0);
+        final AtomicLong millis = new AtomicLong(0);
+        final AtomicLong safeTrials = new AtomicLong(0);
+        final AtomicLong changed = new AtomicLong(0);
+        final Map<String, Long> types = new ConcurrentHashMap<>();
+
+        HostStats(String host) {
+            this.host = host;
+        }
+
+        void record(String type, long size, long duration) {
+            requests.incrementAndGet();
+            bytes.addAndGet(size);
+            millis.addAndGet(Math.max(0, duration));
+            types.merge(type, 1L, Long::sum);
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("pages", pages.get());
+            snapshot.put("requests", requests.get());
+            snapshot.put("bytes", bytes.get());
+            snapshot.put("avgMs", requests.get() == 0 ? 0 : millis.get() / requests.get());
+            snapshot.put("types", new HashMap<>(types));
+            snapshot.put("safeTrials", safeTrials.get());
+            snapshot.put("changedTrials", changed.get());
+            return snapshot;
+        }
+    }
+
+    /**
+     * On-disk form of the learned rules.
+     */
+    public static class StoredRules {
+        public Set<String> learned;
+        public Map<String, Boolean> pins;
+    }
+}
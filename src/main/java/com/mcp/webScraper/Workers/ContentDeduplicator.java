@@ -0,0 +1,183 @@
+package com.mcp.webScraper.Workers;
+
+import com.mcp.webScraper.entity.SearchResult;
+import com.mcp.webScraper.utils.SimHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near-duplicate detection of page text by SimHash, for syndicated articles, mirrors and docs versions.
+ * Keeps the fingerprints of cached page bodies so a new page within "content.dedup.maxDistance" bits of one
+ * can share its body, and collapses near-duplicate results within one response.
+ * Fingerprints are split into maxDistance + 1 blocks and indexed by each: two fingerprints at most maxDistance bits
+ * apart differ in at most maxDistance blocks, so they agree on at least one.
+ */
+@Service
+public class ContentDeduplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentDeduplicator.class);
+
+    // 8 blocks of 8 bits; narrower blocks would make the buckets too crowded to scan
+    private static final int MAX_DISTANCE = 7;
+
+    private final int maxDistance;
+    private final int blockCount;
+    private final int minChars;
+    private final int maxEntries;
+
+    // Access-ordered, eldest first
+    private final LinkedHashMap<Long, Boolean> fingerprints = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, List<Long>> blocks = new HashMap<>();
+
+    private final AtomicLong pages = new AtomicLong(0);
+    private final AtomicLong sharedPages = new AtomicLong(0);
+    private final AtomicLong sharedChars = new AtomicLong(0);
+    private final AtomicLong collapsedResults = new AtomicLong(0);
+    private final AtomicLong collapsedChars = new AtomicLong(0);
+
+    public ContentDeduplicator(@Value("${content.dedup.maxDistance:6}") int maxDistance,
+                               @Value("${content.dedup.minChars:500}") int minChars,
+                               @Value("${content.dedup.maxEntries:50000}") int maxEntries) {
+        this.maxDistance = Math.max(0, Math.min(MAX_DISTANCE, maxDistance));
+        this.blockCount = this.maxDistance + 1;
+        this.minChars = minChars;
+        this.maxEntries = maxEntries;
+        log.info("Content dedup: SimHash distance <= {} bits, pages of {}+ chars, {} fingerprints",
+                this.maxDistance, minChars, maxEntries);
+    }
+
+    /**
+     * Whether the text is long enough for its fingerprint to be meaningful.
+     */
+    public boolean isEligible(String content) {
+        return content != null && content.length() >= minChars;
+    }
+
+    /**
+     * Fingerprint of the body the page should share: a known one near enough to its own, otherwise its own,
+     * which becomes known.
+     */
+    public synchronized long share(long fingerprint, int contentLength) {
+        pages.incrementAndGet();
+        Long near = findNear(fingerprint);
+        if (near != null) {
+            fingerprints.get(near);
+            if (near != fingerprint) {
+                sharedPages.incrementAndGet();
+                sharedChars.addAndGet(contentLength);
+            }
+            return near;
+        }
+
+        fingerprints.put(fingerprint, Boolean.TRUE);
+        for (int block = 0; block < blockCount; block++) {
+            blocks.computeIfAbsent(blockKey(fingerprint, block), key -> new ArrayList<>(1)).add(fingerprint);
+        }
+        if (fingerprints.size() > maxEntries) {
+            forget(fingerprints.keySet().iterator().next());
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Drops a fingerprint, e.g. once its body is no longer cached.
+     */
+    public synchronized void forget(long fingerprint) {
+        if (fingerprints.remove(fingerprint) == null) return;
+        for (int block = 0; block < blockCount; block++) {
+            long key = blockKey(fingerprint, block);
+            List<Long> bucket = blocks.get(key);
+            if (bucket == null) continue;
+            bucket.remove(fingerprint);
+            if (bucket.isEmpty()) blocks.remove(key);
+        }
+    }
+
+    /**
+     * Drops results whose content is a near duplicate of an earlier result's, listing their sources on the kept one.
+     */
+    public List<SearchResult> collapse(List<SearchResult> results) {
+        if (results == null || results.size() < 2) return results;
+
+        List<SearchResult> kept = new ArrayList<>(results.size());
+        List<Long> keptFingerprints = new ArrayList<>(results.size());
+        for (SearchResult result : results) {
+            if (!isEligible(result.getContent())) {
+                kept.add(result);
+                keptFingerprints.add(null);
+                continue;
+            }
+
+            long fingerprint = SimHash.fingerprint(result.getContent());
+            int duplicateOf = -1;
+            for (int i = 0; i < kept.size() && duplicateOf < 0; i++) {
+                Long other = keptFingerprints.get(i);
+                if (other != null && SimHash.distance(fingerprint, other) <= maxDistance) duplicateOf = i;
+            }
+
+            if (duplicateOf < 0) {
+                kept.add(result);
+                keptFingerprints.add(fingerprint);
+                continue;
+            }
+
+            SearchResult original = kept.get(duplicateOf);
+            if (original.getDuplicateSources() == null) original.setDuplicateSources(new ArrayList<>());
+            original.getDuplicateSources().add(result.getSource());
+            collapsedResults.incrementAndGet();
+            collapsedChars.addAndGet(result.getContent().length());
+            log.debug("Collapsed {} into near-duplicate {}", result.getSource(), original.getSource());
+        }
+        return kept;
+    }
+
+    // CONTENT DEDUP INSIGHTS
+    public synchronized Map<String, Object> getDedupStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxDistance", maxDistance);
+        stats.put("fingerprints", fingerprints.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("pages", pages.get());
+        stats.put("sharedPages", sharedPages.get());
+        stats.put("sharedChars", sharedChars.get());
+        stats.put("collapsedResults", collapsedResults.get());
+        stats.put("collapsedChars", collapsedChars.get());
+        return stats;
+    }
+
+    private Long findNear(long fingerprint) {
+        if (fingerprints.containsKey(fingerprint)) return fingerprint;
+
+        Long best = null;
+        int bestDistance = maxDistance + 1;
+        for (int block = 0; block < blockCount; block++) {
+            List<Long> bucket = blocks.get(blockKey(fingerprint, block));
+            if (bucket == null) continue;
+            for (long candidate : bucket) {
+                int distance = SimHash.distance(fingerprint, candidate);
+                if (distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Block number in the top bits, so equal values of different blocks do not share a bucket
+    private long blockKey(long fingerprint, int block) {
+        int from = block * 64 / blockCount;
+        int to = (block + 1) * 64 / blockCount;
+        long value = (fingerprint >>> from) & ((1L << (to - from)) - 1);
+        return ((long) block << 56) | value;
+    }
+}
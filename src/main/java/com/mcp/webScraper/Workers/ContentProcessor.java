@@ -0,0 +1,131 @@
+package com.mcp.webScraper.Workers;
+
+import com.mcp.webScraper.entity.ScrapeResult;
+import com.mcp.webScraper.utils.ReadabilityExtractor;
+import com.mcp.webScraper.utils.TextNormalizer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CPU phase of a scrape.
+ * Readability scoring, PDF text extraction and normalization run on a bounded pool sized to the cores,
+ * after the scraper instance that captured the page has already been returned to the pool.
+ */
+@Service
+public class ContentProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentProcessor.class);
+
+    @Autowired
+    private PdfTextExtractor pdfTextExtractor;
+
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public ContentProcessor(@Value("${scrape.cpuThreads:0}") int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger counter = new AtomicInteger(0);
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "scrape-cpu-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public ContentProcessor(int threads, PdfTextExtractor pdfTextExtractor) {
+        this(threads);
+        this.pdfTextExtractor = pdfTextExtractor;
+    }
+
+    /**
+     * Processes the capture on the CPU pool and waits for the result.
+     */
+    public ScrapeResult process(PageCapture capture) {
+        if (capture.getKind() == PageCapture.Kind.FAILED) {
+            return processInline(capture);
+        }
+
+        try {
+            return executor.submit(() -> processInline(capture)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ScrapeResult(false, null, capture.getUrl(), "Content processing interrupted");
+        } catch (ExecutionException e) {
+            log.error("Content processing failed for {}: {}", capture.getUrl(), e.getCause().getMessage());
+            return new ScrapeResult(false, null, capture.getUrl(), "Content processing failed");
+        }
+    }
+
+    /**
+     * Processes the capture on the calling thread.
+     */
+    public ScrapeResult processInline(PageCapture capture) {
+        String url = capture.getUrl();
+        int charBudget = capture.getCharBudget();
+
+        try {
+            String content = switch (capture.getKind()) {
+                case FAILED -> null;
+                case TEXT -> TextNormalizer.normalize(capture.getBody(), charBudget);
+                case HTML -> TextNormalizer.normalize(ReadabilityExtractor.extract(capture.getBody(), url), charBudget);
+                case PDF -> pdfTextExtractor.extract(capture.getFile().toFile(), charBudget);
+            };
+
+            if (content == null) {
+                return new ScrapeResult(false, null, url, capture.getError());
+            }
+
+            ScrapeResult result = new ScrapeResult(true, content, url, null);
+            result.setEtag(capture.getEtag());
+            result.setLastModified(capture.getLastModified());
+            return result;
+
+        } catch (Exception e) {
+            log.error("{} extraction failed for {}: {}", capture.getKind(), url, e.getMessage());
+            return new ScrapeResult(false, null, url,
+                    capture.getKind() == PageCapture.Kind.PDF ? "PDF site extraction failed!!" : "Failed to extract content");
+        } finally {
+            if (capture.getFile() != null) {
+                try {
+                    Files.deleteIfExists(capture.getFile());
+                } catch (IOException e) {
+                    log.debug("Could not delete {}: {}", capture.getFile(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // CPU POOL INSIGHTS
+    public Map<String, Object> getPoolStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completed", executor.getCompletedTaskCount());
+        return stats;
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+package com.mcp.webScraper.Workers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.*;
+
+/**
+ * Per-host politeness limiter in front of the scrape path.
+ * Caps concurrent requests and request rate per host, and backs off from hosts that answered
+ * 429/503 so throttled domains are rejected immediately instead of burning browser time.
+ */
+@Service
+public class HostRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(HostRateLimiter.class);
+
+    // Bounded, expiring host table
+    private final Cache<String, HostState> hosts = Caffeine.newBuilder()
+            .maximumSize(HOST_TABLE_SIZE)
+            .expireAfterAccess(HOST_IDLE_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Waits for a per-host slot. The returned permit must be closed once the request is done.
+     */
+    public Permit acquire(String url) {
+        String host = hostOf(url);
+        HostState state = hosts.get(host, h -> new HostState());
+
+        long backoffMs = state.backoffUntil - System.currentTimeMillis();
+        if (backoffMs > 0) {
+            state.rejected.incrementAndGet();
+            log.debug("Host {} is backing off for another {} ms", host, backoffMs);
+            return Permit.denied("Host " + host + " is rate limited, retry after " + (backoffMs + 999) / 1000 + "s");
+        }
+
+        try {
+            if (!state.slots.tryAcquire(HOST_ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                state.rejected.incrementAndGet();
+                log.warn("Timed out waiting for a slot on host {}", host);
+                return Permit.denied("Too many concurrent requests to " + host);
+            }
+
+            // Space out request starts to HOST_MIN_INTERVAL_MS
+            long delay = state.reserveStart();
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Permit.denied("Interrupted while waiting for " + host);
+        }
+
+        state.requests.incrementAndGet();
+        return new Permit(state, null);
+    }
+
+    /**
+     * Records a 429/503 answer and backs off from the host for the Retry-After period.
+     */
+    public void recordThrottle(String url, int status, String retryAfter) {
+        if (status != 429 && status != 503) return;
+
+        String host = hostOf(url);
+        HostState state = hosts.get(host, h -> new HostState());
+        long backoffSeconds = Math.min(parseRetryAfter(retryAfter), HOST_MAX_BACKOFF_SECONDS);
+
+        state.throttled.incrementAndGet();
+        state.backoffUntil = Math.max(state.backoffUntil, System.currentTimeMillis() + backoffSeconds * 1000);
+        log.warn("Host {} answered {}, backing off for {}s", host, status, backoffSeconds);
+    }
+
+    private long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return HOST_DEFAULT_BACKOFF_SECONDS;
+        }
+        try {
+            return Math.max(1, Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime until = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(1, Duration.between(ZonedDateTime.now(until.getZone()), until).getSeconds());
+        } catch (DateTimeParseException e) {
+            return HOST_DEFAULT_BACKOFF_SECONDS;
+        }
+    }
+
+    static String hostOf(String url) {
+        String host = KeyCanonicalizer.host(url);
+        return host != null ? host : "unknown";
+    }
+
+    // HOST INSIGHTS
+    public Map<String, Object> getHostStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedHosts", hosts.estimatedSize());
+
+        Map<String, Map<String, Long>> perHost = new LinkedHashMap<>();
+        hosts.asMap().forEach((host, state) -> perHost.put(host, state.snapshot()));
+        stats.put("hosts", perHost);
+        return stats;
+    }
+
+    /**
+     * A per-host slot; closing it releases the slot.
+     */
+    public static class Permit implements AutoCloseable {
+        private final HostState state;
+        private final String reason;
+        private boolean released;
+
+        private Permit(HostState state, String reason) {
+            this.state = state;
+            this.reason = reason;
+        }
+
+        static Permit denied(String reason) {
+            return new Permit(null, reason);
+        }
+
+        public boolean isGranted() {
+            return state != null;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (state != null && !released) {
+                released = true;
+                state.slots.release();
+            }
+        }
+    }
+
+    /**
+     * Limiter state tracked for each host.
+     */
+    private static class HostState {
+        final Semaphore slots = new Semaphore(HOST_MAX_CONCURRENCY, true);
+        final AtomicLong requests = new AtomicLong(0);
+        final AtomicLong rejected = new AtomicLong(0);
+        final AtomicLong throttled = new AtomicLong(0);
+        volatile long backoffUntil = 0;
+        private long nextStart = 0;
+
+        // Returns how long the caller must wait before starting its request
+        synchronized long reserveStart() {
+            long now = System.currentTimeMillis();
+            long start = Math.max(now, nextStart);
+            nextStart = start + HOST_MIN_INTERVAL_MS;
+            return start - now;
+        }
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> snapshot = new LinkedHashMap<>();
+            snapshot.put("requests", requests.get());
+            snapshot.put("active", (long) (HOST_MAX_CONCURRENCY - slots.availablePermits()));
+            snapshot.put("rejected", rejected.get());
+            snapshot.put("throttled", throttled.get());
+            snapshot.put("backoffRemainingMs", Math.max(0, backoffUntil - System.currentTimeMillis()));
+            return snapshot;
+        }
+    }
+}
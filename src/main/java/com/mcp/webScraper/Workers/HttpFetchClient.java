@@ -0,0 +1,379 @@
+package com.mcp.webScraper.Workers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.mcp.webScraper.utils.ProxyService_withPearl;
+import com.microsoft.playwright.options.Proxy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.*;
+
+/**
+ * Shared HTTP client for every non-browser fetch (PDFs, static pages, robots/sitemaps).
+ * One {@link HttpClient} is kept per proxy so keep-alive connections are pooled per host and
+ * HTTP/2 streams are multiplexed, while all clients share one TLS session cache for resumption.
+ */
+@Service
+@DependsOn({"proxyService_withPearl"})
+public class HttpFetchClient {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpFetchClient.class);
+
+    private static final String DIRECT = "direct";
+
+    @Autowired(required = false)
+    private ProxyService_withPearl proxyServiceWithPearl;
+
+    @Autowired(required = false)
+    private HostRateLimiter hostRateLimiter;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // One client per proxy, evicted clients are shut down so their pools are released
+    private final Cache<String, HttpClient> clients = Caffeine.newBuilder()
+            .maximumSize(FETCH_MAX_PROXY_CLIENTS + 1L)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .removalListener((String key, HttpClient client, RemovalCause cause) -> {
+                if (client != null) client.shutdown();
+            })
+            .build();
+
+    // Bounded per-host statistics
+    private final Cache<String, HostStats> hostStats = Caffeine.newBuilder()
+            .maximumSize(FETCH_MAX_TRACKED_HOSTS)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    private final AtomicLong totalRequests = new AtomicLong(0);
+    private final AtomicLong totalFailures = new AtomicLong(0);
+
+    private SSLContext sslContext;
+
+    /**
+     * Applies JVM-wide networking settings used by {@link HttpClient}.
+     * Must run before the first DNS lookup or client creation, so it is called from {@code main}.
+     */
+    public static void applyJvmNetworkSettings() {
+        // Bounded DNS cache: entries live at most DNS_CACHE_TTL_SECONDS
+        Security.setProperty("networkaddress.cache.ttl", String.valueOf(DNS_CACHE_TTL_SECONDS));
+        Security.setProperty("networkaddress.cache.negative.ttl", String.valueOf(DNS_NEGATIVE_CACHE_TTL_SECONDS));
+
+        // Keep-alive pool tuning, read once when the first client is built
+        setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(FETCH_IDLE_POOL_SIZE));
+        setIfAbsent("jdk.httpclient.keepalive.timeout", String.valueOf(FETCH_KEEP_ALIVE_SECONDS));
+
+        // Pearl proxies authenticate with Basic, which the JDK disables for HTTPS CONNECT tunnels by default;
+        // without this every HTTPS fetch through them fails with 407 before the Authenticator is asked
+        setIfAbsent("jdk.http.auth.tunneling.disabledSchemes", "");
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    @PostConstruct
+    private void init() {
+        try {
+            sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, null, null);
+
+            SSLSessionContext sessions = sslContext.getClientSessionContext();
+            sessions.setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+            sessions.setSessionTimeout(TLS_SESSION_TIMEOUT_SECONDS);
+        } catch (GeneralSecurityException e) {
+            log.error("Failed to create TLS context, using JVM default: {}", e.getMessage());
+            try {
+                sslContext = SSLContext.getDefault();
+            } catch (GeneralSecurityException ignored) {
+                sslContext = null;
+            }
+        }
+        log.info("HTTP fetch client initialized");
+    }
+
+    /**
+     * Sends a GET request and returns the body as a stream.
+     * The caller is responsible for closing the body.
+     */
+    public HttpResponse<InputStream> getStream(String url) throws IOException {
+        return send(url, "GET", Map.of(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Sends a GET request with extra headers and returns the body as a stream.
+     */
+    public HttpResponse<InputStream> getStream(String url, Map<String, String> headers) throws IOException {
+        return send(url, "GET", headers, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Sends a conditional GET with the given validators.
+     * The body of a non-304 response is never read, so a changed page costs only its headers.
+     *
+     * @return {@code true} if the origin answered 304 Not Modified.
+     */
+    public boolean isNotModified(String url, String etag, String lastModified) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (etag != null) headers.put("If-None-Match", etag);
+        if (lastModified != null) headers.put("If-Modified-Since", lastModified);
+        if (headers.isEmpty()) return false;
+
+        HttpResponse<InputStream> response = getStream(url, headers);
+        response.body().close();
+        return response.statusCode() == 304;
+    }
+
+    /**
+     * Pre-flight probe that reports the Content-Type and size of a resource without downloading it.
+     * Sends a HEAD first and falls back to a one-byte ranged GET for origins that reject HEAD.
+     */
+    public ProbeResult probe(String url) throws IOException {
+        HttpResponse<Void> head = send(url, "HEAD", Map.of(), HttpResponse.BodyHandlers.discarding());
+        if (head.statusCode() < 400) {
+            return ProbeResult.from(head.statusCode(), head.headers());
+        }
+
+        HttpResponse<InputStream> ranged = getStream(url, Map.of("Range", "bytes=0-0"));
+        ranged.body().close();
+        return ProbeResult.from(ranged.statusCode(), ranged.headers());
+    }
+
+    /**
+     * Sends a request through a pooled client, rotating proxies between calls.
+     */
+    public <T> HttpResponse<T> send(String url, String method, Map<String, String> headers,
+                                    HttpResponse.BodyHandler<T> handler) throws IOException {
+        URI uri;
+        try {
+            uri = URI.create(url.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid URL: " + url);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(FETCH_TIMEOUT_MS))
+                .header("User-Agent", USER_AGENTS.get(random.nextInt(USER_AGENTS.size())))
+                .header("Accept-Language", ACCEPT_LANGUAGES.get(random.nextInt(ACCEPT_LANGUAGES.size())))
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        headers.forEach(builder::header);
+
+        String host = KeyCanonicalizer.host(url);
+        if (host == null) host = "unknown";
+        HostStats stats = hostStats.get(host, h -> new HostStats());
+
+        totalRequests.incrementAndGet();
+        stats.requests.incrementAndGet();
+        stats.inFlight.incrementAndGet();
+        long startTime = System.nanoTime();
+
+        try {
+            HttpResponse<T> response = nextClient().send(builder.build(), handler);
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                stats.http2.incrementAndGet();
+            }
+            if (hostRateLimiter != null) {
+                hostRateLimiter.recordThrottle(url, response.statusCode(),
+                        response.headers().firstValue("retry-after").orElse(null));
+            }
+            log.debug("Fetched {} {} -> {} ({})", method, url, response.statusCode(), response.version());
+            return response;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            totalFailures.incrementAndGet();
+            stats.failures.incrementAndGet();
+            throw new IOException("Fetch interrupted: " + url, e);
+        } catch (IOException e) {
+            totalFailures.incrementAndGet();
+            stats.failures.incrementAndGet();
+            throw e;
+        } finally {
+            stats.inFlight.decrementAndGet();
+            stats.totalLatencyMs.addAndGet((System.nanoTime() - startTime) / 1_000_000);
+        }
+    }
+
+    /**
+     * Picks a proxy from the proxy service (or DIRECT) and returns its pooled client.
+     */
+    private HttpClient nextClient() {
+        Optional<Proxy> proxy = proxyServiceWithPearl != null && proxyServiceWithPearl.isEnabled()
+                ? proxyServiceWithPearl.createProxyConfig()
+                : Optional.empty();
+
+        if (proxy.isEmpty()) {
+            return clients.get(DIRECT, key -> buildClient(null));
+        }
+        return clients.get(proxy.get().server, key -> buildClient(proxy.get()));
+    }
+
+    private HttpClient buildClient(Proxy proxy) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(CONNECTION_TIMEOUT_MS));
+
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+
+        if (proxy != null) {
+            URI proxyUri = URI.create(proxy.server);
+            builder.proxy(ProxySelector.of(new InetSocketAddress(proxyUri.getHost(), proxyUri.getPort())));
+
+            if (proxy.username != null && proxy.password != null) {
+                String username = proxy.username;
+                char[] password = proxy.password.toCharArray();
+                builder.authenticator(new Authenticator() {
+                    @Override
+                    protected PasswordAuthentication getPasswordAuthentication() {
+                        return getRequestorType() == RequestorType.PROXY
+                                ? new PasswordAuthentication(username, password)
+                                : null;
+                    }
+                });
+            }
+            log.debug("Created HTTP client for proxy {}", proxy.server);
+        } else {
+            log.debug("Created HTTP client for DIRECT connection");
+        }
+
+        return builder.build();
+    }
+
+    // POOL INSIGHTS
+    public Map<String, Object> getPoolStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clients", clients.estimatedSize());
+        stats.put("trackedHosts", hostStats.estimatedSize());
+        stats.put("totalRequests", totalRequests.get());
+        stats.put("totalFailures", totalFailures.get());
+
+        Map<String, Map<String, Long>> hosts = new LinkedHashMap<>();
+        hostStats.asMap().forEach((host, hs) -> hosts.put(host, hs.snapshot()));
+        stats.put("hosts", hosts);
+        return stats;
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        log.info("Shutting down HTTP fetch clients...");
+        clients.invalidateAll();
+        clients.cleanUp();
+    }
+
+    /**
+     * Result of a pre-flight probe: status, media type, charset and total size (-1 if unknown).
+     */
+    public static class ProbeResult {
+        final int status;
+        final String mimeType;
+        final String charset;
+        final long contentLength;
+
+        ProbeResult(int status, String mimeType, String charset, long contentLength) {
+            this.status = status;
+            this.mimeType = mimeType;
+            this.charset = charset;
+            this.contentLength = contentLength;
+        }
+
+        public static ProbeResult from(int status, HttpHeaders headers) {
+            String contentType = headers.firstValue("content-type").orElse("");
+            String mimeType = contentType.split(";")[0].trim().toLowerCase();
+
+            String charset = null;
+            for (String param : contentType.split(";")) {
+                String trimmed = param.trim();
+                if (trimmed.toLowerCase().startsWith("charset=")) {
+                    charset = trimmed.substring("charset=".length()).replace("\"", "").trim();
+                }
+            }
+
+            // A ranged GET reports the full size in Content-Range: bytes 0-0/12345
+            long contentLength = -1;
+            String contentRange = headers.firstValue("content-range").orElse(null);
+            if (contentRange != null && contentRange.contains("/")) {
+                try {
+                    contentLength = Long.parseLong(contentRange.substring(contentRange.indexOf('/') + 1).trim());
+                } catch (NumberFormatException ignored) {
+                }
+            } else {
+                contentLength = headers.firstValueAsLong("content-length").orElse(-1L);
+            }
+
+            return new ProbeResult(status, mimeType, charset, contentLength);
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getCharset() {
+            return charset;
+        }
+
+        public long getContentLength() {
+            return contentLength;
+        }
+    }
+
+    /**
+     * Counters tracked for each remote host.
+     */
+    private static class HostStats {
+        final AtomicLong requests = new AtomicLong(0);
+        final AtomicLong failures = new AtomicLong(0);
+        final AtomicLong http2 = new AtomicLong(0);
+        final AtomicLong totalLatencyMs = new AtomicLong(0);
+        final AtomicInteger inFlight = new AtomicInteger(0);
+
+        Map<String, Long> snapshot() {
+            long count = requests.get();
+            Map<String, Long> snapshot = new LinkedHashMap<>();
+            snapshot.put("requests", count);
+            snapshot.put("failures", failures.get());
+            snapshot.put("http2", http2.get());
+            snapshot.put("inFlight", (long) inFlight.get());
+            snapshot.put("avgLatencyMs", count > 0 ? totalLatencyMs.get() / count : 0);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.mcp.webScraper.Workers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Canonical forms of URLs and search queries used as cache, in-flight and per-host keys,
+ * so variants of the same page or query share one entry. Only keys are rewritten; pages are
+ * still fetched and queries still searched exactly as requested.
+ * URLs: https scheme, lower-case host without trailing dot or default port, no fragment,
+ * no trailing slash, tracking parameters ("canonical.trackingParams", "utm_*"-style prefixes allowed) removed
+ * and the rest sorted by name. Queries: NFKC, lower case, single spaces, sentence punctuation trimmed off words.
+ */
+@Service
+public class KeyCanonicalizer {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyCanonicalizer.class);
+
+    // Trimmed from word edges; "c++", "c#", ".net", "node.js" and quoted phrases are kept
+    private static final String LEADING_PUNCTUATION = "([{¡¿";
+    private static final String TRAILING_PUNCTUATION = ",.;:!?…)]}";
+
+    private final Set<String> trackingParams = new HashSet<>();
+    private final List<String> trackingPrefixes = new ArrayList<>();
+
+    public KeyCanonicalizer(@Value("${canonical.trackingParams:utm_*,fbclid,gclid,gclsrc,dclid,msclkid,yclid,igshid,mc_cid,mc_eid,_ga,_gl,_hsenc,_hsmi,mkt_tok,ref_src,spm}") String trackingParams) {
+        for (String param : trackingParams.split(",")) {
+            String name = param.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) continue;
+            if (name.endsWith("*")) {
+                trackingPrefixes.add(name.substring(0, name.length() - 1));
+            } else {
+                this.trackingParams.add(name);
+            }
+        }
+        log.info("Key canonicalization drops {} tracking parameters and {} prefixes",
+                this.trackingParams.size(), trackingPrefixes.size());
+    }
+
+    /**
+     * Canonical URL, or the trimmed URL without its fragment if it cannot be parsed.
+     */
+    public String url(String url) {
+        if (url == null) return "";
+        String trimmed = url.trim();
+
+        try {
+            URI uri = new URI(trimmed);
+            String scheme = uri.getScheme();
+            String host = host(uri);
+            if (scheme == null || host == null) {
+                return withoutFragment(trimmed);
+            }
+
+            scheme = scheme.toLowerCase(Locale.ROOT);
+            if (scheme.equals("http")) scheme = "https";
+
+            StringBuilder canonical = new StringBuilder(trimmed.length()).append(scheme).append("://").append(host);
+            int port = uri.getPort();
+            if (port > 0 && port != 80 && port != 443) {
+                canonical.append(':').append(port);
+            }
+
+            String path = uri.getRawPath();
+            if (path == null || path.isEmpty()) {
+                path = "/";
+            } else if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            canonical.append(path);
+
+            String query = canonicalQueryString(uri.getRawQuery());
+            if (!query.isEmpty()) {
+                canonical.append('?').append(query);
+            }
+            return canonical.toString();
+        } catch (URISyntaxException e) {
+            return withoutFragment(trimmed);
+        }
+    }
+
+    /**
+     * Canonical search query: case, whitespace and sentence punctuation do not change the key.
+     */
+    public String query(String query) {
+        if (query == null) return "";
+        String text = Normalizer.normalize(query, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        StringBuilder canonical = new StringBuilder(text.length());
+        for (String word : text.split("\\s+")) {
+            int start = 0;
+            int end = word.length();
+            while (start < end && LEADING_PUNCTUATION.indexOf(word.charAt(start)) >= 0) start++;
+            while (end > start && TRAILING_PUNCTUATION.indexOf(word.charAt(end - 1)) >= 0) end--;
+            if (start == end) continue;
+
+            if (!canonical.isEmpty()) canonical.append(' ');
+            canonical.append(word, start, end);
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * Lower-case host without a trailing dot, or null if the URL has none.
+     */
+    public static String host(String url) {
+        if (url == null) return null;
+        try {
+            return host(new URI(url.trim()));
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String host(URI uri) {
+        String host = uri.getHost();
+        if (host == null || host.isEmpty()) return null;
+        host = host.toLowerCase(Locale.ROOT);
+        return host.endsWith(".") ? host.substring(0, host.length() - 1) : host;
+    }
+
+    // Parameters sorted by name, keeping the order of repeated names
+    private String canonicalQueryString(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return "";
+
+        List<String> kept = new ArrayList<>();
+        for (String param : rawQuery.split("&")) {
+            if (param.isEmpty()) continue;
+            int eq = param.indexOf('=');
+            String name = (eq >= 0 ? param.substring(0, eq) : param).toLowerCase(Locale.ROOT);
+            if (!isTracking(name)) kept.add(param);
+        }
+        kept.sort(Comparator.comparing(param -> {
+            int eq = param.indexOf('=');
+            return eq >= 0 ? param.substring(0, eq) : param;
+        }));
+        return String.join("&", kept);
+    }
+
+    private boolean isTracking(String name) {
+        if (trackingParams.contains(name)) return true;
+        for (String prefix : trackingPrefixes) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static String withoutFragment(String url) {
+        int hash = url.indexOf('#');
+        return hash >= 0 ? url.substring(0, hash) : url;
+    }
+}
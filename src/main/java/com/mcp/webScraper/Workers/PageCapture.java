@@ -0,0 +1,100 @@
+package com.mcp.webScraper.Workers;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Raw output of the I/O phase of a scrape: in-page extracted text, serialized HTML, decoded text
+ * or a downloaded PDF file, plus the origin validators. Turned into a ScrapeResult by the ContentProcessor
+ * once the browser has been returned to the pool.
+ */
+public class PageCapture {
+
+    public enum Kind {
+        TEXT,
+        HTML,
+        PDF,
+        FAILED
+    }
+
+    private final Kind kind;
+    private final String url;
+    private final int charBudget;
+    private final String body;
+    private final Path file;
+    private final String error;
+    private String etag;
+    private String lastModified;
+    private Set<String> trialHosts = Set.of();
+
+    private PageCapture(Kind kind, String url, int charBudget, String body, Path file, String error) {
+        this.kind = kind;
+        this.url = url;
+        this.charBudget = charBudget;
+        this.body = body;
+        this.file = file;
+        this.error = error;
+    }
+
+    public static PageCapture text(String url, int charBudget, String text) {
+        return new PageCapture(Kind.TEXT, url, charBudget, text, null, null);
+    }
+
+    public static PageCapture html(String url, int charBudget, String html) {
+        return new PageCapture(Kind.HTML, url, charBudget, html, null, null);
+    }
+
+    public static PageCapture pdf(String url, int charBudget, Path file) {
+        return new PageCapture(Kind.PDF, url, charBudget, null, file, null);
+    }
+
+    public static PageCapture failed(String url, String error) {
+        return new PageCapture(Kind.FAILED, url, 0, null, null, error);
+    }
+
+    public PageCapture withValidators(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    public Set<String> getTrialHosts() {
+        return trialHosts;
+    }
+
+    public void setTrialHosts(Set<String> trialHosts) {
+        this.trialHosts = trialHosts;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getCharBudget() {
+        return charBudget;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+}
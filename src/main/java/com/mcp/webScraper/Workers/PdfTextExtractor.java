@@ -0,0 +1,151 @@
+package com.mcp.webScraper.Workers;
+
+import com.mcp.webScraper.utils.TextNormalizer;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.*;
+
+/**
+ * Extracts text from downloaded PDF files.
+ * Small budgets are stripped page by page on the calling thread, large budgets are split into
+ * page ranges and stripped in parallel on a bounded CPU pool, then reassembled in order.
+ */
+@Service
+public class PdfTextExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfTextExtractor.class);
+
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+
+    public PdfTextExtractor(@Value("${pdf.extractThreads:0}") int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger counter = new AtomicInteger(0);
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.threads * 8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-extract-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Extracts up to charBudget characters of normalized text from the PDF file.
+     */
+    public String extract(File pdf, int charBudget) throws IOException {
+        try (PDDocument document = load(pdf)) {
+            if (document.isEncrypted()) {
+                throw new IOException("Encrypted PDFs are not supported");
+            }
+
+            int maxPages = charBudget > MAX_CONTENT_LENGTH ? MAX_FULL_PDF_PAGES : MAX_PDF_PAGES;
+            int pageCount = Math.min(document.getNumberOfPages(), maxPages);
+
+            if (charBudget >= PARALLEL_PDF_MIN_BUDGET && pageCount >= PARALLEL_PDF_MIN_PAGES && threads > 1) {
+                return extractParallel(pdf, pageCount, charBudget);
+            }
+            return extractSequential(document, pageCount, charBudget);
+        }
+    }
+
+    /**
+     * Strips pages one by one into the normalizer, stopping as soon as the character budget is filled.
+     */
+    public String extractSequential(PDDocument document, int pageCount, int charBudget) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        TextNormalizer text = new TextNormalizer(charBudget, MAX_CONTENT_LENGTH);
+
+        int page = 1;
+        for (; page <= pageCount && !text.isFull(); page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            text.append(stripper.getText(document));
+        }
+
+        log.debug("Extracted {} chars from {} of {} PDF pages",
+                text.length(), page - 1, document.getNumberOfPages());
+        return text.toString();
+    }
+
+    /**
+     * Splits the first pageCount pages into ranges and strips them in parallel.
+     * PDDocument is not thread-safe, so every range opens its own lazily loaded view of the file.
+     * Ranges are collected in order and the remaining ones are cancelled once the budget is filled.
+     */
+    public String extractParallel(File pdf, int pageCount, int charBudget) throws IOException {
+        int rangeSize = Math.max(PARALLEL_PDF_MIN_RANGE, (pageCount + threads - 1) / threads);
+
+        List<Future<String>> ranges = new ArrayList<>();
+        for (int start = 1; start <= pageCount; start += rangeSize) {
+            int first = start;
+            int last = Math.min(pageCount, start + rangeSize - 1);
+            ranges.add(executor.submit(() -> extractRange(pdf, first, last)));
+        }
+
+        TextNormalizer text = new TextNormalizer(charBudget, 1 << 20);
+        try {
+            for (Future<String> range : ranges) {
+                if (text.isFull()) {
+                    range.cancel(true);
+                    continue;
+                }
+                text.append(range.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ranges.forEach(range -> range.cancel(true));
+            throw new IOException("PDF extraction interrupted", e);
+        } catch (ExecutionException e) {
+            ranges.forEach(range -> range.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException("PDF extraction failed", cause);
+        }
+
+        log.debug("Extracted {} chars from {} PDF pages in {} ranges", text.length(), pageCount, ranges.size());
+        return text.toString();
+    }
+
+    private String extractRange(File pdf, int firstPage, int lastPage) throws IOException {
+        try (PDDocument document = load(pdf)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(firstPage);
+            stripper.setEndPage(lastPage);
+            return stripper.getText(document);
+        }
+    }
+
+    private PDDocument load(File pdf) throws IOException {
+        return Loader.loadPDF(pdf, IOUtils.createTempFileOnlyStreamCache());
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+}
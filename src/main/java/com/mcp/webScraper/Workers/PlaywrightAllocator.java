@@ -18,7 +18,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Profile("prod")
-@DependsOn({"proxyService_withPearl"})
+@DependsOn({"proxyService_withPearl", "httpFetchClient", "resourceRouter"})
 @Service
 public class PlaywrightAllocator { //TODO: Use Thread Pool or ExecutorService implementation for better concurrency handling
 
@@ -30,6 +30,24 @@ public class PlaywrightAllocator { //TODO: Use Thread Pool or ExecutorService im
     @Autowired
     private ProxyService_withPearl proxyServiceWithPearl;
 
+    @Autowired
+    private ResourceRouter resourceRouter;
+
+    @Autowired
+    private ContentProcessor contentProcessor;
+
+    @Autowired
+    private HostRateLimiter hostRateLimiter;
+
+    @Autowired
+    private RequestBlocklist requestBlocklist;
+
+    @Autowired
+    private BlocklistLearner blocklistLearner;
+
+    @Autowired
+    private StealthPolicy stealthPolicy;
+
     @Value("${playwright.lockInstances:10}")
     private int instances;
 
@@ -67,6 +85,8 @@ public class PlaywrightAllocator { //TODO: Use Thread Pool or ExecutorService im
             for (int i = 0; i < instances; i++) {
                 try {
                     searchTools[i] = new PlaywrightBrowserSearchTools();
+                    searchTools[i].setRequestBlocklist(requestBlocklist);
+                    searchTools[i].setStealthPolicy(stealthPolicy);
                     // Set proxy service
                     searchTools[i].setProxyService(proxyServiceWithPearl);
                     log.debug("Search instance {} initialized", i);
@@ -82,6 +102,13 @@ public class PlaywrightAllocator { //TODO: Use Thread Pool or ExecutorService im
             for (int i = 0; i < instances; i++) {
                 try {
                     scraperTools[i] = new PlaywrightWebScraperTools();
+                    // Shared router for non-browser fetches
+                    scraperTools[i].setResourceRouter(resourceRouter);
+                    scraperTools[i].setContentProcessor(contentProcessor);
+                    scraperTools[i].setHostRateLimiter(hostRateLimiter);
+                    scraperTools[i].setRequestBlocklist(requestBlocklist);
+                    scraperTools[i].setBlocklistLearner(blocklistLearner);
+                    scraperTools[i].setStealthPolicy(stealthPolicy);
                     // Set proxy service
                     scraperTools[i].setProxyService(proxyServiceWithPearl);
                     log.debug("Scraper instance {} initialized", i);
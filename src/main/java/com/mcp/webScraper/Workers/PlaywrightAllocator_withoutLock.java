@@ -4,13 +4,14 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 @Profile("dev")
-@DependsOn("proxyService")
+@DependsOn({"proxyService_withPearl", "httpFetchClient", "resourceRouter"})
 @Service
 public class PlaywrightAllocator_withoutLock {
 
@@ -19,6 +20,24 @@ public class PlaywrightAllocator_withoutLock {
     private PlaywrightBrowserSearchTools[] searchTools;
     private PlaywrightWebScraperTools[] scraperTools;
 
+    @Autowired
+    private ResourceRouter resourceRouter;
+
+    @Autowired
+    private ContentProcessor contentProcessor;
+
+    @Autowired
+    private HostRateLimiter hostRateLimiter;
+
+    @Autowired
+    private RequestBlocklist requestBlocklist;
+
+    @Autowired
+    private BlocklistLearner blocklistLearner;
+
+    @Autowired
+    private StealthPolicy stealthPolicy;
+
     @Value("${playwright.instances:10}")
     private int instances;
 
@@ -39,6 +58,8 @@ public class PlaywrightAllocator_withoutLock {
             for (int i = 0; i < instances; i++) {
                 try {
                     searchTools[i] = new PlaywrightBrowserSearchTools();
+                    searchTools[i].setRequestBlocklist(requestBlocklist);
+                    searchTools[i].setStealthPolicy(stealthPolicy);
                     log.debug("Search instance {} initialized", i);
                 } catch (Exception e) {
                     log.error("Failed to initialize search instance {}: {}", i, e.getMessage());
@@ -50,6 +71,13 @@ public class PlaywrightAllocator_withoutLock {
             for (int i = 0; i < instances; i++) {
                 try {
                     scraperTools[i] = new PlaywrightWebScraperTools();
+                    // Shared router for non-browser fetches
+                    scraperTools[i].setResourceRouter(resourceRouter);
+                    scraperTools[i].setContentProcessor(contentProcessor);
+                    scraperTools[i].setHostRateLimiter(hostRateLimiter);
+                    scraperTools[i].setRequestBlocklist(requestBlocklist);
+                    scraperTools[i].setBlocklistLearner(blocklistLearner);
+                    scraperTools[i].setStealthPolicy(stealthPolicy);
                     log.debug("Scraper instance {} initialized", i);
                 } catch (Exception e) {
                     log.error("Failed to initialize scraper instance {}: {}", i, e.getMessage());
@@ -18,8 +18,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import static com.mcp.webScraper.Workers.PlaywrightConfig.*;
 
@@ -47,6 +49,77 @@ public class PlaywrightBrowserSearchTools {
             )
     );
 
+    // Collects the first result hrefs, matching what extractResults reads later
+    private static final String EARLY_LINKS_SCRIPT = """
+            (results, args) => {
+                const links = [];
+                for (const result of results) {
+                    if (links.length >= args.limit) break;
+                    for (const selector of args.titleSelector.split(', ')) {
+                        const anchor = result.querySelector(selector.trim());
+                        const href = anchor && anchor.getAttribute('href');
+                        if (href && href.startsWith('http')) {
+                            if (!links.includes(href.trim())) links.push(href.trim());
+                            break;
+                        }
+                    }
+                }
+                return links;
+            }
+            """;
+
+    // Reads title, link and snippet of the first results in one pass, mirroring the engine selector fallbacks
+    private static final String EXTRACT_RESULTS_SCRIPT = """
+            (results, args) => {
+                const text = (element) => element ? element.textContent.trim() : null;
+                const extracted = [];
+                for (const result of results) {
+                    if (extracted.length >= args.limit) break;
+
+                    let title = null;
+                    let href = null;
+                    for (const selector of args.titleSelector.split(', ')) {
+                        const anchor = result.querySelector(selector.trim());
+                        if (!anchor) continue;
+                        const link = anchor.getAttribute('href');
+                        title = text(anchor);
+                        href = link && link.startsWith('http') ? link.trim() : null;
+                        if (title && href) break;
+                    }
+                    if (!title || !href) continue;
+
+                    const snippet = text(result.querySelector(args.snippetSelector));
+                    extracted.push({ title: title, href: href, snippet: snippet || title });
+                }
+                return extracted;
+            }
+            """;
+
+    // Resolves once the DOM has had no mutations for quietMs (or after maxMs) with the first selector that matches
+    private static final String SETTLE_SCRIPT = """
+            (args) => new Promise(resolve => {
+                let quiet = null;
+                let cap = null;
+                const observer = new MutationObserver(() => {
+                    clearTimeout(quiet);
+                    quiet = setTimeout(done, args.quietMs);
+                });
+                function done() {
+                    observer.disconnect();
+                    clearTimeout(quiet);
+                    clearTimeout(cap);
+                    resolve(args.selectors.find(selector => document.querySelector(selector)) || null);
+                }
+                observer.observe(document.body || document.documentElement,
+                        { childList: true, subtree: true, characterData: true });
+                quiet = setTimeout(done, args.quietMs);
+                cap = setTimeout(done, args.maxMs);
+            })
+            """;
+
+    // Result selector that last worked per engine, shared by all search instances
+    private static final Map<String, String> READY_SELECTORS = new ConcurrentHashMap<>();
+
     // Instance variables for Playwright and the browser.
     private volatile Playwright playwright;
     private volatile Browser browser;
@@ -55,6 +128,8 @@ public class PlaywrightBrowserSearchTools {
     private final AtomicBoolean isUse = new AtomicBoolean(false);
 
     private ProxyService_withPearl proxyServiceWithPearl;
+    private RequestBlocklist requestBlocklist;
+    private StealthPolicy stealthPolicy;
 
     /**
      * Constructor for the PlaywrightBrowserSearchTools.
@@ -74,6 +149,22 @@ public class PlaywrightBrowserSearchTools {
         initializeBrowser();
     }
 
+    /**
+     * Sets the shared request blocklist installed on every new page.
+     * @param requestBlocklist The shared request blocklist.
+     */
+    public void setRequestBlocklist(RequestBlocklist requestBlocklist) {
+        this.requestBlocklist = requestBlocklist;
+    }
+
+    /**
+     * Sets the shared policy that picks the stealth profile of each page and records its cost.
+     * @param stealthPolicy The shared stealth policy.
+     */
+    public void setStealthPolicy(StealthPolicy stealthPolicy) {
+        this.stealthPolicy = stealthPolicy;
+    }
+
     /**
      * This method is called before the bean is destroyed.
      * It closes the Playwright browser and releases any resources.
@@ -117,6 +208,15 @@ public class PlaywrightBrowserSearchTools {
      * It takes a query and a search engine, and returns a list of search results.
      */
     public List<SearchResult> playwrightSearch(String query, int maxResults, String engine) {
+        return playwrightSearch(query, maxResults, engine, null);
+    }
+
+    /**
+     * Performs a web search, handing the first result links to earlyResultListener as soon as
+     * they are visible, before the remaining results and snippets are extracted.
+     */
+    public List<SearchResult> playwrightSearch(String query, int maxResults, String engine,
+                                               Consumer<String> earlyResultListener) {
         if (browser == null) {
             logger.warn("Browser not initialized");
             return sendError("Browser is not initialized!!");
@@ -131,12 +231,19 @@ public class PlaywrightBrowserSearchTools {
             return sendError("Query is empty!!");
         }
 
+        StealthProfile stealth = stealthPolicy != null ? stealthPolicy.forSearch() : StealthProfile.FULL;
+        long startTime = System.currentTimeMillis();
+
         try (BrowserContext context = createContext()) {
             Page page = context.newPage();
-            setupPage(page);
+            setupPage(page, stealth);
 
-            List<SearchResult> results = performSearch(page, query.trim(), engine, searchId, maxResults);
+            List<SearchResult> results = performSearch(page, query.trim(), engine, searchId, maxResults, earlyResultListener);
             logger.info("Search #{} completed with {} results", searchId, results.size());
+            if (stealthPolicy != null) {
+                stealthPolicy.record(stealth, System.currentTimeMillis() - startTime,
+                        !results.isEmpty() && results.get(0).isSuccess());
+            }
             return results;
 
         } catch (Exception e) {
@@ -149,7 +256,8 @@ public class PlaywrightBrowserSearchTools {
      * This method performs the actual search on the search engine's website.
      * It iterates through the configured search engines and tries to find results.
      */
-    private List<SearchResult> performSearch(Page page, String query, String preferredEngine, long searchId, int maxResults) {
+    private List<SearchResult> performSearch(Page page, String query, String preferredEngine, long searchId, int maxResults,
+                                             Consumer<String> earlyResultListener) {
         List<String> engineOrder = determineEngineOrder(preferredEngine);
 
         for (String engineKey : engineOrder) {
@@ -165,17 +273,28 @@ public class PlaywrightBrowserSearchTools {
                         .setWaitUntil(WaitUntilState.DOMCONTENTLOADED)
                         .setTimeout(NAVIGATION_TIMEOUT_MS));
 
-                // Wait for the search results to appear on the page.
-                if (!tryMultipleSelectors(page, engine.resultSelector.split(", "))) {
+                // Wait for any of the result selectors to appear on the page.
+                if (!waitForResults(page, engine)) {
                     logger.debug("No results found with any selector for search #{}", searchId);
                     continue; // Try next engine
                 }
 
-                // Add a human-like delay to avoid being detected as a bot.
-                page.waitForTimeout(WAIT_TIMEOUT_MS);
+                String resultSelector = READY_SELECTORS.getOrDefault(engineKey, engine.resultSelector);
+
+                // Let the scrape stage start warming the top hits while we keep parsing.
+                if (earlyResultListener != null) {
+                    signalEarlyResults(page, engine, resultSelector, Math.min(maxResults, PREFETCH_TOP_RESULTS),
+                            earlyResultListener);
+                }
+
+                // Wait until the result list stops changing and remember the selector that matched.
+                String matched = waitForSettle(page, engineKey, engine);
+                if (matched != null) {
+                    resultSelector = matched;
+                }
 
                 // Extract the search results from the page.
-                List<SearchResult> results = extractResults(page, engine, searchId, maxResults);
+                List<SearchResult> results = extractResults(page, engine, resultSelector, searchId, maxResults);
 
                 logger.debug("Engine {} returned {} SearchResult objects for search #{}",
                         engine.name, results.size(), searchId);
@@ -197,122 +316,130 @@ public class PlaywrightBrowserSearchTools {
 
     /**
      * This method extracts the search results from the page.
-     * It uses the configured selectors to find the title, link, and snippet of each search result.
+     * All results are read by one in-page script using the engine's selectors, and only mapped here.
      */
-    private List<SearchResult> extractResults(Page page, SearchEngine engine, long searchId, int maxResults) {
-        List<SearchResult> results = new ArrayList<>();
-
+    private List<SearchResult> extractResults(Page page, SearchEngine engine, String resultSelector,
+                                              long searchId, int maxResults) {
         try {
-            Locator resultElements = page.locator(engine.resultSelector);
-            int count = Math.min(resultElements.count(), maxResults);
+            Object extracted = page.evalOnSelectorAll(resultSelector, EXTRACT_RESULTS_SCRIPT, Map.of(
+                    "titleSelector", engine.titleSelector,
+                    "snippetSelector", engine.snippetSelector,
+                    "limit", maxResults));
 
-            logger.debug("Found {} results for search #{}", count, searchId);
-
-            for (int i = 0; i < count; i++) {
-                try {
-                    Locator result = resultElements.nth(i);
-
-                    // Try different selectors for the title and link to make the scraping more robust.
-                    String title = null;
-                    String link = null;
-
-                    for (String titleSel : engine.titleSelector.split(", ")) {
-                        title = getTextSafely(result.locator(titleSel.trim()));
-                        link = getLinkSafely(result.locator(titleSel.trim()));
-                        if (title != null && link != null) break;
-                    }
-
-                    String snippet = getTextSafely(result.locator(engine.snippetSelector));
-
-                    if (title != null && link != null && !link.trim().isEmpty()) {
-                        SearchResult searchResult = new SearchResult();
-                        searchResult.setSuccess(true);
-                        searchResult.setSource(link.trim());
-                        searchResult.setSnippet(snippet != null ? snippet.trim() : title.trim());
-                        searchResult.setError(null);
-                        results.add(searchResult);
-                    }
-
-                } catch (Exception e) {
-                    logger.debug("Failed to extract result #{}", i + 1);
-                }
-            }
+            List<SearchResult> results = toSearchResults(extracted);
+            logger.debug("Found {} results for search #{}", results.size(), searchId);
+            return results;
 
         } catch (Exception e) {
             logger.error("Result extraction failed for search #{}: {}", searchId, e.getMessage());
             return sendError("Failed to extract result or empty field");
         }
-
-        return results;
     }
 
     /**
-     * This method tries to find an element on the page using multiple selectors.
-     * This is useful when a website has different layouts or class names for the same element.
+     * Maps the {title, href, snippet} objects returned by the extraction script to search results.
+     * Anything that is not such an object with a link is skipped.
      */
-    private boolean tryMultipleSelectors(Page page, String[] selectors) {
-        for (String selector : selectors) {
-            try {
-                // Try shorter timeout first
-                page.waitForSelector(selector.trim(), new Page.WaitForSelectorOptions()
-                        .setTimeout(3000)  // Shorter initial timeout
-                        .setState(WaitForSelectorState.ATTACHED));
-
-                Locator elements = page.locator(selector.trim());
-                if (elements.first().isVisible()) {
-                    return true;
-                }
-            } catch (Exception e) {
-                logger.debug("Selector '{}' failed: {}", selector.trim(), e.getMessage());
-                continue; // Try next selector quickly
-            }
+    public static List<SearchResult> toSearchResults(Object extracted) {
+        List<SearchResult> results = new ArrayList<>();
+        if (!(extracted instanceof List<?> list)) return results;
+
+        for (Object item : list) {
+            if (!(item instanceof Map<?, ?> fields) || !(fields.get("href") instanceof String href)) continue;
+
+            SearchResult searchResult = new SearchResult();
+            searchResult.setSuccess(true);
+            searchResult.setSource(href);
+            searchResult.setSnippet(fields.get("snippet") instanceof String snippet ? snippet : null);
+            searchResult.setError(null);
+            results.add(searchResult);
         }
+        return results;
+    }
 
-        // If all fast attempts failed, try one more time with longer timeout
-        for (String selector : selectors) {
-            try {
-                page.waitForSelector(selector.trim(), new Page.WaitForSelectorOptions()
-                        .setTimeout(SELECTOR_WAIT_TIMEOUT_MS)
-                        .setState(WaitForSelectorState.ATTACHED));
+    /**
+     * This method reads the first result links in one evaluate call and hands them to the listener.
+     */
+    @SuppressWarnings("unchecked")
+    private void signalEarlyResults(Page page, SearchEngine engine, String resultSelector, int limit,
+                                    Consumer<String> listener) {
+        try {
+            Object links = page.evalOnSelectorAll(resultSelector, EARLY_LINKS_SCRIPT,
+                    Map.of("titleSelector", engine.titleSelector, "limit", limit));
 
-                Locator elements = page.locator(selector.trim());
-                if (elements.first().isVisible()) {
-                    return true;
+            if (links instanceof List<?> list) {
+                for (Object link : list) {
+                    listener.accept((String) link);
                 }
-            } catch (Exception e) {
-                // Final attempt failed
             }
+        } catch (Exception e) {
+            logger.debug("Early result signal failed: {}", e.getMessage());
         }
-
-        return false;
     }
 
     /**
-     * This method safely extracts the text content of an element.
+     * This method waits for the search results to appear.
+     * All result selectors are combined into one union selector, so a layout change costs
+     * a single timeout instead of one per selector.
      */
-    private String getTextSafely(Locator locator) {
+    private boolean waitForResults(Page page, SearchEngine engine) {
         try {
-            return locator.count() > 0 ? locator.textContent() : null;
+            page.waitForSelector(engine.resultSelector, new Page.WaitForSelectorOptions()
+                    .setTimeout(SELECTOR_WAIT_TIMEOUT_MS)
+                    .setState(WaitForSelectorState.ATTACHED));
+            return true;
         } catch (Exception e) {
-            return null;
+            logger.debug("Result selectors for {} did not match: {}", engine.name, e.getMessage());
+            return false;
         }
     }
 
     /**
-     * This method safely extracts the href attribute of a link.
+     * This method waits until the page has stopped mutating for READY_QUIET_MS, at most READY_MAX_SETTLE_MS.
+     * It returns the first result selector that matches, trying the one that last worked for the engine first,
+     * and remembers it for the next search.
      */
-    private String getLinkSafely(Locator locator) {
+    private String waitForSettle(Page page, String engineKey, SearchEngine engine) {
+        String remembered = READY_SELECTORS.get(engineKey);
+        List<String> selectors = settleOrder(engine.resultSelector, remembered);
+
         try {
-            if (locator.count() > 0) {
-                String href = locator.getAttribute("href");
-                return href != null && href.startsWith("http") ? href : null;
+            Object matched = page.evaluate(SETTLE_SCRIPT, Map.of(
+                    "selectors", selectors,
+                    "quietMs", READY_QUIET_MS,
+                    "maxMs", READY_MAX_SETTLE_MS));
+
+            if (matched instanceof String selector) {
+                if (!selector.equals(remembered)) {
+                    logger.debug("Engine {} now matches results with '{}'", engine.name, selector);
+                    READY_SELECTORS.put(engineKey, selector);
+                }
+                return selector;
             }
         } catch (Exception e) {
-            // Ignore any exceptions.
+            logger.debug("Settle wait failed: {}", e.getMessage());
         }
         return null;
     }
 
+    /**
+     * The engine's result selectors in the order the settle script tries them:
+     * the one that last worked first, then the others in their declared order.
+     */
+    public static List<String> settleOrder(String resultSelector, String remembered) {
+        List<String> selectors = new ArrayList<>();
+        if (remembered != null) {
+            selectors.add(remembered);
+        }
+        for (String selector : resultSelector.split(", ")) {
+            String trimmed = selector.trim();
+            if (!trimmed.isEmpty() && !trimmed.equals(remembered)) {
+                selectors.add(trimmed);
+            }
+        }
+        return selectors;
+    }
+
     /**
      * This method determines the order of search engines to use.
      * It prioritizes the preferred engine, and then adds the remaining engines.
@@ -391,33 +518,17 @@ public class PlaywrightBrowserSearchTools {
 
     /**
      * This method sets up the page for scraping.
-     * It adds a stealth script to avoid bot detection and blocks unnecessary resources to speed up the scraping.
+     * It adds the stealth script of the chosen profile to avoid bot detection and blocks unnecessary resources to speed up the scraping.
      */
-    private void setupPage(Page page) {
-        page.addInitScript(STEALTH_SCRIPT);
-
-        page.route("**/*", route -> {
-            String url = route.request().url();
-            String resourceType = route.request().resourceType();
+    private void setupPage(Page page, StealthProfile stealth) {
+        if (stealth.getScript() != null) {
+            page.addInitScript(stealth.getScript());
+        }
 
-            try {
-                // Block unnecessary resources such as images, stylesheets, fonts, and media.
-                if (resourceType.equals("image") || resourceType.equals("stylesheet") ||
-                        resourceType.equals("font") || resourceType.equals("media") ||
-                        url.contains("ads")) {
-                    route.abort();
-                } else {
-                    route.resume();
-                }
-            } catch (Exception e) {
-                // If routing fails, try to resume the request.
-                try {
-                    route.resume();
-                } catch (Exception ignored) {
-                    logger.debug("Route handling failed for: {}", url);
-                }
-            }
-        });
+        // Block ads, trackers and heavy resources, inside the browser where possible
+        if (requestBlocklist != null) {
+            requestBlocklist.apply(page);
+        }
     }
 
 
@@ -25,6 +25,10 @@ public class PlaywrightConfig {
     public static final int ELEMENT_INTERACTION_TIMEOUT_MS = 5000;
     public static final int NETWORK_IDLE_TIMEOUT_MS = 12000;
     public static final int WAIT_TIMEOUT_MS = 3000;
+    public static final int READY_QUIET_MS = 300;
+    public static final int READY_MAX_SETTLE_MS = 3000;
+    public static final int CONTENT_STABLE_WINDOW_MS = 600;
+    public static final int CONTENT_POLL_INTERVAL_MS = 150;
     public static final int MAX_RETRIES = 1;
 
 
@@ -33,6 +37,34 @@ public class PlaywrightConfig {
     public static final int CONNECTION_TIMEOUT_MS = 10000;
     public static final int DNS_TIMEOUT_MS = 5000;
 
+    // HTTP CLIENT (non-browser fetches: PDFs, static pages, robots/sitemaps)
+    public static final int FETCH_TIMEOUT_MS = 15000;
+    public static final int FETCH_IDLE_POOL_SIZE = 64;
+    public static final int FETCH_KEEP_ALIVE_SECONDS = 30;
+    public static final int FETCH_MAX_PROXY_CLIENTS = 10;
+    public static final int FETCH_MAX_TRACKED_HOSTS = 1000;
+    public static final int DNS_CACHE_TTL_SECONDS = 60;
+    public static final int DNS_NEGATIVE_CACHE_TTL_SECONDS = 10;
+    public static final int TLS_SESSION_CACHE_SIZE = 1000;
+    public static final int TLS_SESSION_TIMEOUT_SECONDS = 3600;
+
+    // POLITENESS (per-host limits on the scrape path)
+    public static final int HOST_MAX_CONCURRENCY = 4;
+    public static final long HOST_MIN_INTERVAL_MS = 250;
+    public static final long HOST_ACQUIRE_TIMEOUT_MS = 10000;
+    public static final long HOST_DEFAULT_BACKOFF_SECONDS = 30;
+    public static final long HOST_MAX_BACKOFF_SECONDS = 600;
+    public static final int HOST_TABLE_SIZE = 10000;
+    public static final int HOST_IDLE_EXPIRY_MINUTES = 30;
+
+    // SEARCH CACHE (every search extracts this many results, so one cached list serves any smaller request)
+    public static final int SEARCH_CACHED_RESULTS = 10;
+
+    // SPECULATIVE PREFETCH (top search hits scraped while results are parsed)
+    public static final int PREFETCH_TOP_RESULTS = 2;
+    public static final int PREFETCH_MAX_CONCURRENT = 4;
+    public static final int PREFETCH_BUDGET_PER_MINUTE = 30;
+
     // Network error patterns to retry
     public static final List<String> RETRYABLE_ERRORS = List.of(
             "net::ERR_CONNECTION_REFUSED",
@@ -50,9 +82,99 @@ public class PlaywrightConfig {
             "en-GB,en;q=0.9,en-US;q=0.8"
     );
 
+    // REQUEST BLOCKING
+    // EasyList-style rules: "||host^" blocks a host and its subdomains, other rules are literal URL fragments
+    public static final List<String> BLOCKLIST_RULES = List.of(
+            "||doubleclick.net^",
+            "||googlesyndication.com^",
+            "||googleadservices.com^",
+            "||adservice.google.com^",
+            "||google-analytics.com^",
+            "||googletagmanager.com^",
+            "||googletagservices.com^",
+            "||amazon-adsystem.com^",
+            "||adnxs.com^",
+            "||adsrvr.org^",
+            "||criteo.com^",
+            "||criteo.net^",
+            "||taboola.com^",
+            "||outbrain.com^",
+            "||rubiconproject.com^",
+            "||pubmatic.com^",
+            "||openx.net^",
+            "||moatads.com^",
+            "||scorecardresearch.com^",
+            "||quantserve.com^",
+            "||chartbeat.com^",
+            "||chartbeat.net^",
+            "||hotjar.com^",
+            "||clarity.ms^",
+            "||bat.bing.com^",
+            "||connect.facebook.net^",
+            "||static.ads-twitter.com^",
+            "||cdn.segment.com^",
+            "||js-agent.newrelic.com^",
+            "||nr-data.net^",
+            "/pagead/",
+            "/adsbygoogle",
+            "/ads/",
+            "/gtag/js",
+            "/analytics.js",
+            "/gtm.js",
+            "/tracking.js"
+    );
+
+    // Third-party hosts are trialled on LEARN_TRIAL_RATE of the pages once seen on LEARN_MIN_PAGES pages,
+    // and learned after LEARN_MIN_TRIALS trials in a row that did not change the extracted content.
+    // A trial that changed it restarts the count, LEARN_MAX_CHANGED_TRIALS of them stop the trials for good
+    public static final double LEARN_TRIAL_RATE = 0.1;
+    public static final int LEARN_TRIAL_HOSTS = 3;
+    public static final int LEARN_MIN_PAGES = 5;
+    public static final int LEARN_MIN_TRIALS = 3;
+    public static final int LEARN_MAX_CHANGED_TRIALS = 2;
+    public static final int LEARN_MIN_CONTENT_LENGTH = 200;
+    public static final double LEARN_SIMILARITY = 0.9;
+    public static final int LEARN_MAX_HOSTS = 5000;
+
+    // Resource types that are never needed for text extraction
+    public static final List<String> BLOCKED_RESOURCE_TYPES = List.of("image", "stylesheet", "font", "media");
+
+    // URL extensions used to block those resource types inside the browser
+    public static final Map<String, List<String>> BLOCKED_RESOURCE_EXTENSIONS = Map.of(
+            "image", List.of("png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico"),
+            "stylesheet", List.of("css"),
+            "font", List.of("woff", "woff2", "ttf", "otf", "eot"),
+            "media", List.of("mp4", "webm", "mp3", "m4a", "ogg", "m3u8")
+    );
+
     // CONTENT
     public static final int MAX_CONTENT_LENGTH = 5500;
     public static final int CONTENT_TRUNCATE_THRESHOLD = 5000;
+    public static final int EXTRACT_SLACK_CHARS = 256;  // returned past the budget by the in-page extraction, so the word-boundary cut happens in Java
+    public static final int MAX_FULL_CONTENT_LENGTH = 200000;
+    public static final long MAX_PDF_BYTES = 25L * 1024 * 1024;
+    public static final int MAX_PDF_PAGES = 100;
+    public static final int MAX_FULL_PDF_PAGES = 1000;
+    public static final int PARALLEL_PDF_MIN_BUDGET = 50000;
+    public static final int PARALLEL_PDF_MIN_PAGES = 32;
+    public static final int PARALLEL_PDF_MIN_RANGE = 8;
+    public static final long MAX_TEXT_BYTES = 2L * 1024 * 1024;
+    public static final long MAX_TEXT_RESOURCE_BYTES = 50L * 1024 * 1024;  // declared size above which text is not downloaded at all
+    public static final int PASSAGE_TARGET_LENGTH = 600;
+    public static final int PASSAGE_SCRAPE_FACTOR = 8;
+
+    // Media types returned directly without a browser
+    public static final List<String> TEXT_MIME_TYPES = List.of(
+            "text/plain",
+            "text/markdown",
+            "text/csv",
+            "text/xml",
+            "application/json",
+            "application/xml",
+            "application/ld+json",
+            "application/rss+xml",
+            "application/atom+xml"
+    );
 
     // User Agents Pool
     public static final List<String> USER_AGENTS = List.of(
@@ -155,9 +277,50 @@ public class PlaywrightConfig {
             "--disable-accelerated-video-decode"                  // Consistent video
     );
 
+    // Both scripts are self-invoking: addInitScript evaluates the source as-is, so a bare arrow function would never run.
+    // Cheap evasions only: properties redefined once at page start, no per-call wrappers, timers or delays
+    public static final String LIGHT_STEALTH_SCRIPT = """
+            (() => {
+                Object.defineProperty(navigator, 'webdriver', {
+                    get: () => undefined,
+                    configurable: true
+                });
+
+                if (!window.chrome) {
+                    window.chrome = {
+                        app: { isInstalled: false },
+                        runtime: {},
+                        loadTimes: () => ({}),
+                        csi: () => ({})
+                    };
+                }
+
+                if (navigator.plugins.length === 0) {
+                    const plugins = ['Chrome PDF Plugin', 'Chrome PDF Viewer', 'Native Client']
+                        .map(name => ({ name, filename: 'internal-pdf-viewer', description: 'Portable Document Format', length: 1 }));
+                    Object.defineProperty(navigator, 'plugins', {
+                        get: () => plugins,
+                        configurable: true
+                    });
+                }
+
+                Object.defineProperty(navigator, 'languages', {
+                    get: () => ['en-US', 'en'],
+                    configurable: true
+                });
+
+                if (navigator.permissions && navigator.permissions.query) {
+                    const originalQuery = navigator.permissions.query.bind(navigator.permissions);
+                    navigator.permissions.query = (parameters) => parameters.name === 'notifications'
+                        ? Promise.resolve({ state: typeof Notification !== 'undefined' ? Notification.permission : 'default' })
+                        : originalQuery(parameters);
+                }
+            })();
+            """;
+
     // Stealth script to evade detection
     public static final String STEALTH_SCRIPT = """
-            () => {
+            (() => {
                 // CORE AUTOMATION HIDING
             
                 // Remove webdriver property completely
@@ -680,7 +843,39 @@ public class PlaywrightConfig {
                 }
             
                 console.log('stealth mode');
-            }
+            })();
+            """;
+
+    // Polls the main content length and resolves once it stops growing or reaches the budget,
+    // then stops any further loading (beacons, long polling) so the page no longer holds the browser
+    public static final String CONTENT_STABLE_SCRIPT = """
+            (args) => new Promise(resolve => {
+                const started = Date.now();
+                let last = -1;
+                let stableSince = started;
+                const measure = () => {
+                    // An empty match is usually a skeleton container, so fall back to the whole body
+                    const root = document.querySelector(args.selector);
+                    const length = root ? root.textContent.length : 0;
+                    return length > 0 || !document.body ? length : document.body.textContent.length;
+                };
+                const tick = () => {
+                    const length = measure();
+                    const now = Date.now();
+                    if (length !== last) {
+                        last = length;
+                        stableSince = now;
+                    }
+                    const stable = length > 0 && now - stableSince >= args.stableMs;
+                    if (stable || length >= args.budget || now - started >= args.maxMs) {
+                        window.stop();
+                        resolve(length);
+                        return;
+                    }
+                    setTimeout(tick, args.intervalMs);
+                };
+                tick();
+            })
             """;
 
     static class LocationProfile {
@@ -4,26 +4,27 @@ import com.mcp.webScraper.entity.ScrapeResult;
 import com.mcp.webScraper.utils.ProxyService_withPearl;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.Geolocation;
-import com.microsoft.playwright.options.LoadState;
 
 import com.microsoft.playwright.options.WaitUntilState;
-import org.apache.pdfbox.io.RandomAccessReadBuffer;
-import org.apache.pdfbox.pdfparser.PDFParser;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -41,6 +42,52 @@ public class PlaywrightWebScraperTools {
     // A CSS selector to identify the main content of a web page.
     private static final String MAIN_CONTENT_SELECTOR = "main, article, [role=main], .content, .post, .entry, .blog, .story";
 
+    // Finds the main content, skips boilerplate and returns whitespace-collapsed text capped near the budget.
+    // Walks text nodes instead of reading innerText, so no layout is forced. Returns null if no candidate matches.
+    private static final String EXTRACT_CONTENT_SCRIPT = """
+            (args) => {
+                const SKIP = new Set(['script', 'style', 'nav', 'header', 'footer', 'aside', 'noscript', 'iframe',
+                        'img', 'picture', 'source', 'svg', 'canvas', 'template', 'video', 'audio', 'object']);
+                const BLOCK = new Set(['p', 'div', 'section', 'article', 'main', 'li', 'ul', 'ol', 'dl', 'dt', 'dd',
+                        'h1', 'h2', 'h3', 'h4', 'h5', 'h6', 'table', 'tr', 'td', 'th', 'br', 'hr', 'pre',
+                        'blockquote', 'figure', 'figcaption', 'form', 'fieldset', 'details', 'summary']);
+                const limit = args.budget + args.slack;
+
+                let root = null;
+                for (const candidate of document.querySelectorAll(args.selector)) {
+                    if (/\\S/.test(candidate.textContent)) {
+                        root = candidate;
+                        break;
+                    }
+                }
+                if (!root) return null;
+
+                const parts = [];
+                let length = 0;
+                const walk = (node) => {
+                    if (length > limit) return;
+                    if (node.nodeType === Node.TEXT_NODE) {
+                        parts.push(node.nodeValue);
+                        length += node.nodeValue.length;
+                        return;
+                    }
+                    if (node.nodeType !== Node.ELEMENT_NODE) return;
+
+                    const tag = node.localName;
+                    if (SKIP.has(tag) || node.hidden || node.getAttribute('aria-hidden') === 'true') return;
+
+                    const block = BLOCK.has(tag);
+                    if (block) parts.push(' ');
+                    for (let child = node.firstChild; child; child = child.nextSibling) walk(child);
+                    if (block) parts.push(' ');
+                };
+                walk(root);
+
+                const text = parts.join('').replace(/\\s+/g, ' ').trim();
+                return text.length > limit ? text.substring(0, limit) : text;
+            }
+            """;
+
     // Instance variables for Playwright and the browser.
     private volatile Playwright playwright;
     private volatile Browser browser;
@@ -49,6 +96,12 @@ public class PlaywrightWebScraperTools {
     private AtomicBoolean isUse = new AtomicBoolean(false);
 
     private ProxyService_withPearl proxyServiceWithPearl;
+    private RequestBlocklist requestBlocklist;
+    private BlocklistLearner blocklistLearner;
+    private ResourceRouter resourceRouter;
+    private ContentProcessor contentProcessor;
+    private HostRateLimiter hostRateLimiter;
+    private StealthPolicy stealthPolicy;
 
     /**
      * Constructor for the PlaywrightWebScraperTools.
@@ -69,6 +122,54 @@ public class PlaywrightWebScraperTools {
         initializeBrowser();
     }
 
+    /**
+     * Sets the shared request blocklist installed on every new page.
+     * @param requestBlocklist The shared request blocklist.
+     */
+    public void setRequestBlocklist(RequestBlocklist requestBlocklist) {
+        this.requestBlocklist = requestBlocklist;
+    }
+
+    /**
+     * Sets the shared learner that records third-party requests and trials new blocklist hosts.
+     * @param blocklistLearner The shared blocklist learner.
+     */
+    public void setBlocklistLearner(BlocklistLearner blocklistLearner) {
+        this.blocklistLearner = blocklistLearner;
+    }
+
+    /**
+     * Sets the shared router that probes URLs and handles non-HTML resources without a browser.
+     * @param resourceRouter The shared resource router.
+     */
+    public void setResourceRouter(ResourceRouter resourceRouter) {
+        this.resourceRouter = resourceRouter;
+    }
+
+    /**
+     * Sets the shared content processor that runs the CPU phase of a scrape.
+     * @param contentProcessor The shared content processor.
+     */
+    public void setContentProcessor(ContentProcessor contentProcessor) {
+        this.contentProcessor = contentProcessor;
+    }
+
+    /**
+     * Sets the shared per-host limiter, which is told about throttled navigations.
+     * @param hostRateLimiter The shared per-host limiter.
+     */
+    public void setHostRateLimiter(HostRateLimiter hostRateLimiter) {
+        this.hostRateLimiter = hostRateLimiter;
+    }
+
+    /**
+     * Sets the shared policy that picks the stealth profile of each page and records its cost.
+     * @param stealthPolicy The shared stealth policy.
+     */
+    public void setStealthPolicy(StealthPolicy stealthPolicy) {
+        this.stealthPolicy = stealthPolicy;
+    }
+
     /**
      * This method is called before the bean is destroyed.
      * It closes the Playwright browser and releases any resources.
@@ -112,39 +213,87 @@ public class PlaywrightWebScraperTools {
      * It takes a URL and returns the scraped content.
      */
     public ScrapeResult scrapeWebpage(String url) {
+        return scrapeWebpage(url, MAX_CONTENT_LENGTH);
+    }
+
+    /**
+     * Scrapes a web page, keeping up to charBudget characters of content.
+     * Captures and processes on the calling thread; the pooled path calls capture() and hands
+     * the capture to the ContentProcessor after returning this instance.
+     */
+    public ScrapeResult scrapeWebpage(String url, int charBudget) {
+        PageCapture capture = capture(url, charBudget);
+        if (contentProcessor == null) {
+            return sendError(url, capture.getKind() == PageCapture.Kind.FAILED
+                    ? capture.getError() : "Content processor not configured");
+        }
+        return contentProcessor.processInline(capture);
+    }
+
+    /**
+     * I/O phase of a scrape: fetches the resource and captures its raw content without any
+     * CPU-heavy parsing, so the instance can be returned to the pool right after.
+     */
+    public PageCapture capture(String url, int charBudget) {
+        return capture(url, charBudget, null);
+    }
+
+    /**
+     * I/O phase of a scrape with an explicitly requested stealth profile; null lets the policy decide.
+     */
+    public PageCapture capture(String url, int charBudget, StealthProfile requestedStealth) {
+        if (!isValidUrl(url)) {
+            return PageCapture.failed(url, "Not a valid url!!");
+        }
+
+        // Non-HTML resources are handled without a browser context
+        if (resourceRouter != null) {
+            PageCapture direct = resourceRouter.captureDirect(url, charBudget);
+            if (direct != null) return direct;
+        }
+
+        return render(url, charBudget, requestedStealth);
+    }
+
+    /**
+     * Renders an HTML page in a fresh browser context and captures its content.
+     * The caller has already routed the URL, so no probe is sent.
+     */
+    public PageCapture render(String url, int charBudget, StealthProfile requestedStealth) {
         if (browser == null) {
-            return new ScrapeResult(false, null, "Browser not initialized", url);
+            return PageCapture.failed(url, "Browser not initialized");
         }
 
         long scrapeId = scrapeCount.incrementAndGet();
         logger.debug("Starting scrape #{}: {}", scrapeId, url);
 
         if (!isValidUrl(url)) {
-            return sendError(url, "Not a valid url!!");
-        }
-
-        // If the URL points to a PDF file, use the PDF extraction logic.
-        if (url.toLowerCase().endsWith(".pdf")) {
-            try {
-                logger.debug("Scraping pdf content");
-                String pdfContent = extractPdfContent(url);
-                return new ScrapeResult(true, pdfContent, null, url);
-            } catch (Exception e) {
-                logger.error("PDF extraction failed for {}: {}", url, e.getMessage());
-                return sendError(url, "PDF site extraction failed!!");
-            }
+            return PageCapture.failed(url, "Not a valid url!!");
         }
 
         // For HTML pages, use Playwright to fetch and extract the content.
+        StealthProfile stealth = stealthPolicy != null
+                ? stealthPolicy.forScrape(url, requestedStealth)
+                : requestedStealth != null ? requestedStealth : StealthProfile.FULL;
+        long startTime = System.currentTimeMillis();
+
         try (BrowserContext context = createContext()) {
             Page page = context.newPage();
-            setupPage(page);
+            BlocklistLearner.PageObservation observation = setupPage(page, url, stealth);
 
-            return fetchAndExtractContentStructured(page, url, scrapeId);
+            PageCapture capture = fetchAndCaptureContent(page, url, scrapeId, charBudget);
+            if (observation != null) {
+                capture.setTrialHosts(observation.finish());
+            }
+            if (stealthPolicy != null) {
+                stealthPolicy.record(stealth, System.currentTimeMillis() - startTime,
+                        capture.getKind() != PageCapture.Kind.FAILED);
+            }
+            return capture;
 
         } catch (Exception e) {
             logger.error("Scrape #{} failed: {}", scrapeId, e.getMessage());
-            return sendError(url, "Something went wrong");
+            return PageCapture.failed(url, "Something went wrong");
         }
     }
 
@@ -153,7 +302,7 @@ public class PlaywrightWebScraperTools {
      * This method fetches the content of a web page with retry logic.
      * It will retry the request up to MAX_RETRIES times if it fails.
      */
-    private ScrapeResult fetchAndExtractContentStructured(Page page, String url, long scrapeId) {
+    private PageCapture fetchAndCaptureContent(Page page, String url, long scrapeId, int charBudget) {
         for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
             try {
                 logger.debug("Scrape #{} attempt {} of {}", scrapeId, attempt, MAX_RETRIES);
@@ -163,24 +312,25 @@ public class PlaywrightWebScraperTools {
                         .setTimeout(NAVIGATION_TIMEOUT_MS));
 
                 int status = response != null ? response.status() : 0;
+                if (response != null && hostRateLimiter != null) {
+                    hostRateLimiter.recordThrottle(url, status, response.headers().get("retry-after"));
+                }
                 if (response == null || !response.ok()) {
                     logger.warn("Failed to load page: {}", response != null ? "HTTP " + status : "No response");
-                    return sendError(url, "Failed to load page: " + status);
+                    return PageCapture.failed(url, "Failed to load page: " + status);
                 }
 
-                try {
-                    page.waitForLoadState(LoadState.NETWORKIDLE,
-                            new Page.WaitForLoadStateOptions().setTimeout(NETWORK_IDLE_TIMEOUT_MS));
-                } catch (Exception ignored) {
-                }
+                waitForStableContent(page, charBudget);
 
-                String content = extractContent(page);
-                logger.debug("Scraped site successfully: {}", url);
-                return new ScrapeResult(true, content, url, null);
+                PageCapture capture = captureContent(page, url, charBudget);
+                logger.debug("Captured site successfully: {}", url);
+
+                Map<String, String> headers = response.headers();
+                return capture.withValidators(headers.get("etag"), headers.get("last-modified"));
 
             } catch (Exception e) {
                 if (attempt == MAX_RETRIES) {
-                    return sendError(url, "Failed after " + MAX_RETRIES + " attempts");
+                    return PageCapture.failed(url, "Failed after " + MAX_RETRIES + " attempts");
                 }
 
                 long backoff = (long) WAIT_TIMEOUT_MS * attempt;
@@ -194,82 +344,48 @@ public class PlaywrightWebScraperTools {
                 }
             }
         }
-        return sendError(url, "Something went wrong");
+        return PageCapture.failed(url, "Something went wrong");
     }
 
 
     /**
-     * This method extracts the main content of a web page.
-     * It first tries to extract the visible text from the main content element.
-     * If that fails, it falls back to using Jsoup to parse the HTML and extract the text.
+     * This method waits until the main content has stopped changing for CONTENT_STABLE_WINDOW_MS
+     * or already holds the character budget, at most NETWORK_IDLE_TIMEOUT_MS, and then stops the page loading.
+     * Unlike NETWORKIDLE this settles on pages with analytics beacons, websockets or long polling.
      */
-    private String extractContent(Page page) {
+    private void waitForStableContent(Page page, int charBudget) {
         try {
-            // Wait for the main content to appear on the page.
-            Locator mainLocator = page.locator(MAIN_CONTENT_SELECTOR).first();
-            try {
-                mainLocator.waitFor(new Locator.WaitForOptions().setTimeout(WAIT_TIMEOUT_MS));
-            } catch (PlaywrightException e) {
-                logger.warn("Main content not found, falling back to full page text");
-            }
-
-            // Extract the visible text from the main content element.
-            String content = mainLocator.isVisible() ? mainLocator.innerText() : page.innerText("body");
-
-            if (content == null || content.trim().isEmpty()) {
-                // If the main content is empty, fall back to using Jsoup to parse the HTML and extract the text.
-                Document doc = Jsoup.parse(page.content());
-                doc.select("script, style, nav, header, footer, aside, noscript, iframe, img, picture, source").remove();
-                Element mainContent = doc.selectFirst(MAIN_CONTENT_SELECTOR);
-                content = mainContent != null ? mainContent.text() : doc.body().text();
-            }
-
-            // Clean up the whitespace in the content.
-            content = content.trim().replaceAll("\\s+", " ");
-
-            // Truncate the content if it is too long.
-            if (content.length() > MAX_CONTENT_LENGTH) {
-                int lastSpace = content.lastIndexOf(' ', MAX_CONTENT_LENGTH);
-                if (lastSpace > MAX_CONTENT_LENGTH - CONTENT_TRUNCATE_THRESHOLD) {
-                    content = content.substring(0, lastSpace) + "...";
-                } else {
-                    content = content.substring(0, MAX_CONTENT_LENGTH) + "...";
-                }
-            }
-
-            return content;
-
+            Object length = page.evaluate(CONTENT_STABLE_SCRIPT, Map.of(
+                    "selector", MAIN_CONTENT_SELECTOR,
+                    "budget", charBudget,
+                    "stableMs", CONTENT_STABLE_WINDOW_MS,
+                    "intervalMs", CONTENT_POLL_INTERVAL_MS,
+                    "maxMs", NETWORK_IDLE_TIMEOUT_MS));
+            logger.debug("Content settled at {} chars", length);
         } catch (Exception e) {
-            logger.error("Content extraction failed: {}", e.getMessage());
-            return "Failed to extract content";
+            logger.debug("Content stability wait failed: {}", e.getMessage());
         }
     }
 
     /**
-     * This method extracts the text content of a PDF document.
+     * This method captures the main content of a web page.
+     * Pages with a known main-content element are extracted in the page with one evaluate call,
+     * so only the capped text crosses the driver pipe. Other pages are serialized once and left
+     * to the readability extractor in the CPU phase.
      */
-    private String extractPdfContent(String url) throws IOException {
-        try (InputStream in = new URL(url).openStream();
-             PDDocument document = new PDFParser(new RandomAccessReadBuffer(in)).parse()) {
-
-            if (document.isEncrypted()) {
-                throw new IOException("Encrypted PDFs are not supported");
-            }
-
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
-
-            // Truncate the content if it is too long.
-            if (text.length() > MAX_CONTENT_LENGTH) {
-                int lastSpace = text.lastIndexOf(' ', MAX_CONTENT_LENGTH);
-                text = text.substring(0, lastSpace > MAX_CONTENT_LENGTH - CONTENT_TRUNCATE_THRESHOLD ? lastSpace : MAX_CONTENT_LENGTH) + "...";
-            }
-
-            return text.trim();
+    private PageCapture captureContent(Page page, String url, int charBudget) {
+        Object content = page.evaluate(EXTRACT_CONTENT_SCRIPT, Map.of(
+                "selector", MAIN_CONTENT_SELECTOR,
+                "budget", charBudget,
+                "slack", EXTRACT_SLACK_CHARS));
+
+        if (content == null) {
+            logger.debug("No main content element, capturing the DOM for scoring");
+            return PageCapture.html(url, charBudget, page.content());
         }
+        return PageCapture.text(url, charBudget, content.toString());
     }
 
-
     /**
      * This method validates a URL.
      * It checks if the URL is null or empty, and if it has a valid protocol (http or https).
@@ -346,33 +462,26 @@ public class PlaywrightWebScraperTools {
 
     /**
      * This method sets up the page for scraping.
-     * It adds a stealth script to avoid bot detection.
+     * It adds the stealth script of the chosen profile to avoid bot detection.
      */
-    private void setupPage(Page page) {
-        page.addInitScript(STEALTH_SCRIPT);
+    private BlocklistLearner.PageObservation setupPage(Page page, String url, StealthProfile stealth) {
+        if (stealth.getScript() != null) {
+            page.addInitScript(stealth.getScript());
+        }
 
-        // Block resources
-        page.route("**/*", route -> {
-            String url = route.request().url();
-            String resourceType = route.request().resourceType();
-            try {
-                if (resourceType.equals("image") || resourceType.equals("stylesheet") ||
-                        resourceType.equals("font") || resourceType.equals("media") ||
-                        url.contains("ads") || url.contains("analytics") ||
-                        url.contains("tracking") || url.contains("metrics")) {
-                    route.abort();
-                } else {
-                    route.resume();
-                }
-            } catch (Exception e) {
-                try {
-                    route.resume();
-                } catch (Exception ignored) {
-                }
+        // Block ads, trackers and heavy resources, inside the browser where possible,
+        // and let the learner watch third-party requests and trial-block some of them
+        BlocklistLearner.PageObservation observation = null;
+        if (requestBlocklist != null) {
+            Set<String> trialHosts = blocklistLearner != null ? blocklistLearner.pickTrialHosts() : Set.of();
+            CDPSession cdp = requestBlocklist.apply(page, trialHosts);
+            if (cdp != null && blocklistLearner != null) {
+                observation = blocklistLearner.observe(cdp, url, trialHosts);
             }
-        });
+        }
 
         page.setDefaultTimeout(DEFAULT_TIMEOUT_MS);
+        return observation;
     }
 
 
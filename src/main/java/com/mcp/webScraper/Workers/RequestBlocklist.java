@@ -0,0 +1,321 @@
+package com.mcp.webScraper.Workers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.*;
+
+/**
+ * Compiled subresource blocklist shared by the search and scrape pages.
+ * EasyList-style rules are compiled once: "||host^" rules into a host-suffix trie, path rules into an
+ * Aho-Corasick automaton, and resource types into extension patterns. On Chromium the rules are pushed
+ * to the page with CDP Network.setBlockedURLs, so blocked requests never leave the browser and allowed
+ * ones don't pay a round-trip to the JVM. Other browsers fall back to a route handler using the compiled matchers.
+ */
+@Service
+public class RequestBlocklist {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestBlocklist.class);
+
+    private volatile Compiled compiled;
+
+    private final AtomicLong cdpPages = new AtomicLong(0);
+    private final AtomicLong routedPages = new AtomicLong(0);
+    private final AtomicLong routeBlocked = new AtomicLong(0);
+
+    public RequestBlocklist() {
+        this.compiled = compile(BLOCKLIST_RULES, BLOCKED_RESOURCE_TYPES, Set.of(), Set.of());
+        log.info("Compiled request blocklist: {} hosts, {} path rules", compiled.hostCount, compiled.pathRules.size());
+    }
+
+    /**
+     * Recompiles the rules with additional blocked hosts and hosts that must never be blocked.
+     */
+    public void update(Set<String> extraHosts, Set<String> allowedHosts) {
+        List<String> rules = new ArrayList<>(BLOCKLIST_RULES);
+        extraHosts.forEach(host -> rules.add("||" + host + "^"));
+        compiled = compile(rules, BLOCKED_RESOURCE_TYPES, allowedHosts, Set.of());
+        log.debug("Recompiled request blocklist: {} hosts, {} allowed", compiled.hostCount, allowedHosts.size());
+    }
+
+    /**
+     * Installs the blocklist on a new page, before its first navigation.
+     */
+    public void apply(Page page) {
+        apply(page, Set.of());
+    }
+
+    /**
+     * Installs the blocklist plus the given trial hosts on a new page.
+     * Returns the page's CDP session with network events enabled, or null if the route fallback was used.
+     */
+    public CDPSession apply(Page page, Set<String> trialHosts) {
+        Compiled rules = trialHosts.isEmpty() ? compiled : compiled.withHosts(trialHosts);
+        try {
+            CDPSession cdp = page.context().newCDPSession(page);
+            JsonObject params = new JsonObject();
+            params.add("urls", rules.cdpPatterns);
+            cdp.send("Network.enable");
+            cdp.send("Network.setBlockedURLs", params);
+            cdpPages.incrementAndGet();
+            return cdp;
+        } catch (Exception e) {
+            // Not Chromium, or CDP unavailable: match in the JVM instead
+            log.debug("CDP blocking unavailable, routing requests: {}", e.getMessage());
+            routedPages.incrementAndGet();
+            page.route("**/*", route -> {
+                try {
+                    if (rules.blocks(route.request().url(), route.request().resourceType())) {
+                        routeBlocked.incrementAndGet();
+                        route.abort();
+                    } else {
+                        route.resume();
+                    }
+                } catch (Exception ignored) {
+                }
+            });
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the request would be blocked.
+     */
+    public boolean blocks(String url, String resourceType) {
+        return compiled.blocks(url, resourceType);
+    }
+
+    // BLOCKLIST INSIGHTS
+    public Map<String, Object> getBlocklistStatistics() {
+        Compiled rules = compiled;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hosts", rules.hostCount);
+        stats.put("pathRules", rules.pathRules.size());
+        stats.put("cdpPatterns", rules.cdpPatterns.size());
+        stats.put("cdpPages", cdpPages.get());
+        stats.put("routedPages", routedPages.get());
+        stats.put("routeBlocked", routeBlocked.get());
+        return stats;
+    }
+
+    /**
+     * Compiles EasyList-style rules. Supported: "||host^" (host and subdomains) and literal path
+     * fragments such as "/pagead/". Comments ("!"), element hiding ("##") and options ("$") are ignored.
+     */
+    static Compiled compile(List<String> rules, List<String> resourceTypes,
+                            Set<String> allowedHosts, Set<String> trialHosts) {
+        HostSuffixTrie hosts = new HostSuffixTrie();
+        Set<String> pathRules = new LinkedHashSet<>();
+        JsonArray cdpPatterns = new JsonArray();
+        int hostCount = 0;
+
+        for (String raw : rules) {
+            String rule = raw.trim();
+            if (rule.isEmpty() || rule.startsWith("!") || rule.contains("##")) continue;
+
+            int options = rule.indexOf('$');
+            if (options >= 0) rule = rule.substring(0, options);
+
+            if (rule.startsWith("||")) {
+                String host = rule.substring(2).replace("^", "").toLowerCase();
+                int slash = host.indexOf('/');
+                if (slash >= 0) host = host.substring(0, slash);
+                if (host.isEmpty() || host.contains("*") || allowedHosts.contains(host)) continue;
+
+                hosts.add(host);
+                hostCount++;
+                cdpPatterns.add("*://" + host + "/*");
+                cdpPatterns.add("*://*." + host + "/*");
+            } else if (!rule.contains("*") && rule.length() >= 4) {
+                String fragment = rule.replace("^", "").toLowerCase();
+                pathRules.add(fragment);
+                cdpPatterns.add("*" + fragment + "*");
+            } else {
+                log.debug("Skipping unsupported blocklist rule '{}'", raw);
+            }
+        }
+
+        for (String type : resourceTypes) {
+            for (String extension : BLOCKED_RESOURCE_EXTENSIONS.getOrDefault(type, List.of())) {
+                cdpPatterns.add("*." + extension);
+                cdpPatterns.add("*." + extension + "?*");
+            }
+        }
+
+        // Trial hosts are only blocked on this page and are not counted as rules
+        for (String host : trialHosts) {
+            hosts.add(host);
+            cdpPatterns.add("*://" + host + "/*");
+        }
+
+        return new Compiled(rules, hosts, hostCount, new AhoCorasick(pathRules), List.copyOf(pathRules),
+                List.copyOf(resourceTypes), allowedHosts, cdpPatterns);
+    }
+
+    /**
+     * An immutable compiled rule set.
+     */
+    static class Compiled {
+        final List<String> rules;
+        final List<String> resourceTypeRules;
+        final Set<String> allowedHosts;
+        final HostSuffixTrie hosts;
+        final int hostCount;
+        final AhoCorasick paths;
+        final List<String> pathRules;
+        final Set<String> resourceTypes;
+        final JsonArray cdpPatterns;
+
+        Compiled(List<String> rules, HostSuffixTrie hosts, int hostCount, AhoCorasick paths, List<String> pathRules,
+                 List<String> resourceTypes, Set<String> allowedHosts, JsonArray cdpPatterns) {
+            this.rules = rules;
+            this.resourceTypeRules = resourceTypes;
+            this.allowedHosts = allowedHosts;
+            this.hosts = hosts;
+            this.hostCount = hostCount;
+            this.paths = paths;
+            this.pathRules = pathRules;
+            this.resourceTypes = Set.copyOf(resourceTypes);
+            this.cdpPatterns = cdpPatterns;
+        }
+
+        Compiled withHosts(Set<String> trialHosts) {
+            return compile(rules, resourceTypeRules, allowedHosts, trialHosts);
+        }
+
+        boolean blocks(String url, String resourceType) {
+            if (resourceType != null && resourceTypes.contains(resourceType)) return true;
+            if (url == null || !url.startsWith("http")) return false;
+
+            try {
+                URI uri = URI.create(url);
+                if (uri.getHost() != null && hosts.matches(uri.getHost().toLowerCase())) return true;
+
+                String path = uri.getRawPath();
+                String query = uri.getRawQuery();
+                String target = query != null ? path + "?" + query : path;
+                return target != null && paths.matches(target.toLowerCase());
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Trie over reversed host labels; a rule for "example.com" matches it and all of its subdomains.
+     */
+    static class HostSuffixTrie {
+        private final Node root = new Node();
+
+        void add(String host) {
+            Node node = root;
+            String[] labels = host.split("\\.");
+            for (int i = labels.length - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(labels[i], label -> new Node());
+            }
+            node.terminal = true;
+        }
+
+        boolean matches(String host) {
+            Node node = root;
+            int end = host.length();
+            while (end > 0) {
+                int start = host.lastIndexOf('.', end - 1) + 1;
+                node = node.children.get(host.substring(start, end));
+                if (node == null) return false;
+                if (node.terminal) return true;
+                end = start - 1;
+            }
+            return false;
+        }
+
+        private static class Node {
+            final Map<String, Node> children = new HashMap<>();
+            boolean terminal;
+        }
+    }
+
+    /**
+     * Aho-Corasick automaton reporting whether any of the fragments occurs in a string, in one pass.
+     */
+    static class AhoCorasick {
+        private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+        private final List<Integer> failure = new ArrayList<>();
+        private final List<Boolean> output = new ArrayList<>();
+
+        AhoCorasick(Iterable<String> fragments) {
+            newState();
+            for (String fragment : fragments) {
+                int state = 0;
+                for (char c : fragment.toCharArray()) {
+                    Integer next = transitions.get(state).get(c);
+                    if (next == null) {
+                        next = newState();
+                        transitions.get(state).put(c, next);
+                    }
+                    state = next;
+                }
+                output.set(state, true);
+            }
+
+            // Breadth-first failure links
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child : transitions.get(0).values()) {
+                failure.set(child, 0);
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    int fallback = failure.get(state);
+                    while (fallback != 0 && !transitions.get(fallback).containsKey(edge.getKey())) {
+                        fallback = failure.get(fallback);
+                    }
+                    Integer target = transitions.get(fallback).get(edge.getKey());
+                    failure.set(child, target != null && target != child ? target : 0);
+                    output.set(child, output.get(child) || output.get(failure.get(child)));
+                    queue.add(child);
+                }
+            }
+        }
+
+        boolean matches(String text) {
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                while (state != 0 && !transitions.get(state).containsKey(c)) {
+                    state = failure.get(state);
+                }
+                Integer next = transitions.get(state).get(c);
+                state = next != null ? next : 0;
+                if (output.get(state)) return true;
+            }
+            return false;
+        }
+
+        private int newState() {
+            transitions.add(new HashMap<>());
+            failure.add(0);
+            output.add(false);
+            return transitions.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.mcp.webScraper.Workers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.*;
+
+/**
+ * Routes a URL by a cheap pre-flight probe before any browser is involved.
+ * PDFs and text resources are downloaded with the shared HTTP client, missing, unsupported and oversized
+ * resources are rejected, and only HTML is left for a pooled browser instance to render.
+ */
+@Service
+public class ResourceRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceRouter.class);
+
+    @Autowired(required = false)
+    private HttpFetchClient httpFetchClient;
+
+    public ResourceRouter() {
+    }
+
+    public ResourceRouter(HttpFetchClient httpFetchClient) {
+        this.httpFetchClient = httpFetchClient;
+    }
+
+    /**
+     * Captures the resource without a browser, or returns null if it is HTML and has to be rendered.
+     */
+    public PageCapture captureDirect(String url, int charBudget) {
+        HttpFetchClient.ProbeResult probe = probe(url);
+        ResourceType type = classify(url, probe);
+        log.debug("{} routed as {}", url, type);
+
+        switch (type) {
+            case MISSING:
+                return PageCapture.failed(url, "Failed to load page: " + probe.getStatus());
+
+            case UNSUPPORTED:
+                log.warn("Rejected {} ({}, {} bytes)", url, probe.getMimeType(), probe.getContentLength());
+                return PageCapture.failed(url, "Unsupported content type: " + probe.getMimeType());
+
+            case TOO_LARGE:
+                log.warn("Rejected {} ({}, {} bytes)", url, probe.getMimeType(), probe.getContentLength());
+                return PageCapture.failed(url, "Resource too large: " + probe.getContentLength() + " bytes");
+
+            // PDF documents are downloaded without a browser.
+            case PDF:
+                try {
+                    log.debug("Downloading pdf content");
+                    return downloadPdf(url, charBudget);
+                } catch (Exception e) {
+                    log.error("PDF download failed for {}: {}", url, e.getMessage());
+                    return PageCapture.failed(url, "PDF site extraction failed!!");
+                }
+
+            // Plain text, JSON and XML are returned directly.
+            case TEXT:
+                try {
+                    log.debug("Downloading text content");
+                    return downloadText(url, probe.getCharset(), charBudget);
+                } catch (Exception e) {
+                    log.error("Text download failed for {}: {}", url, e.getMessage());
+                    return PageCapture.failed(url, "Text extraction failed!!");
+                }
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Decides which handler a resource is routed to.
+     * Without a usable probe it falls back to the URL suffix, since origins that block plain
+     * HTTP clients may still serve the page to a browser.
+     */
+    public static ResourceType classify(String url, HttpFetchClient.ProbeResult probe) {
+        boolean pdfSuffix = url.toLowerCase().split("[?#]")[0].endsWith(".pdf");
+
+        if (probe == null) {
+            return pdfSuffix ? ResourceType.PDF : ResourceType.HTML;
+        }
+        if (probe.getStatus() == 404 || probe.getStatus() == 410) {
+            return ResourceType.MISSING;
+        }
+        if (probe.getStatus() >= 400) {
+            return pdfSuffix ? ResourceType.PDF : ResourceType.HTML;
+        }
+
+        String mimeType = probe.getMimeType();
+        if (mimeType.equals("application/pdf") || (pdfSuffix && mimeType.equals("application/octet-stream"))) {
+            return probe.getContentLength() > MAX_PDF_BYTES ? ResourceType.TOO_LARGE : ResourceType.PDF;
+        }
+        if (mimeType.isEmpty() || mimeType.equals("text/html") || mimeType.equals("application/xhtml+xml")) {
+            return ResourceType.HTML;
+        }
+        if (TEXT_MIME_TYPES.contains(mimeType) || mimeType.endsWith("+json") || mimeType.endsWith("+xml")) {
+            return probe.getContentLength() > MAX_TEXT_RESOURCE_BYTES ? ResourceType.TOO_LARGE : ResourceType.TEXT;
+        }
+        return ResourceType.UNSUPPORTED;
+    }
+
+    /**
+     * Sends the pre-flight probe, returning null if the origin could not be probed.
+     */
+    private HttpFetchClient.ProbeResult probe(String url) {
+        if (httpFetchClient == null) return null;
+        try {
+            return httpFetchClient.probe(url);
+        } catch (Exception e) {
+            log.debug("Probe failed for {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Downloads a PDF document to a size-capped temp file.
+     * The file is handed to the PDF extractor in the CPU phase, which deletes it afterwards.
+     * The origin validators are kept for later revalidation.
+     */
+    private PageCapture downloadPdf(String url, int charBudget) throws IOException {
+        if (httpFetchClient == null) {
+            throw new IOException("HTTP client not configured");
+        }
+
+        HttpResponse<InputStream> response = httpFetchClient.getStream(url);
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Failed to download PDF: HTTP " + response.statusCode());
+        }
+
+        long declaredLength = response.headers().firstValueAsLong("content-length").orElse(-1L);
+        if (declaredLength > MAX_PDF_BYTES) {
+            response.body().close();
+            throw new IOException("PDF too large: " + declaredLength + " bytes");
+        }
+
+        Path tempFile = Files.createTempFile("scrape-", ".pdf");
+        try (InputStream in = response.body();
+             OutputStream out = Files.newOutputStream(tempFile)) {
+            copyWithLimit(in, out, MAX_PDF_BYTES);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        HttpHeaders headers = response.headers();
+        return PageCapture.pdf(url, charBudget, tempFile)
+                .withValidators(headers.firstValue("etag").orElse(null), headers.firstValue("last-modified").orElse(null));
+    }
+
+    /**
+     * Downloads text, JSON and XML resources, reading at most MAX_TEXT_BYTES.
+     */
+    private PageCapture downloadText(String url, String charsetName, int charBudget) throws IOException {
+        if (httpFetchClient == null) {
+            throw new IOException("HTTP client not configured");
+        }
+
+        HttpResponse<InputStream> response = httpFetchClient.getStream(url);
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Failed to download text: HTTP " + response.statusCode());
+        }
+
+        byte[] bytes;
+        try (InputStream in = response.body()) {
+            bytes = in.readNBytes((int) MAX_TEXT_BYTES);
+        }
+
+        Charset charset = StandardCharsets.UTF_8;
+        try {
+            if (charsetName != null) charset = Charset.forName(charsetName);
+        } catch (IllegalArgumentException e) {
+            log.debug("Unknown charset '{}', using UTF-8", charsetName);
+        }
+
+        HttpHeaders headers = response.headers();
+        return PageCapture.text(url, charBudget, new String(bytes, charset))
+                .withValidators(headers.firstValue("etag").orElse(null), headers.firstValue("last-modified").orElse(null));
+    }
+
+    /**
+     * Copies a stream, failing once more than maxBytes have been read.
+     */
+    private static void copyWithLimit(InputStream in, OutputStream out, long maxBytes) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxBytes) {
+                throw new IOException("PDF exceeds " + maxBytes + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    /**
+     * The handler a resource is routed to after the pre-flight probe.
+     */
+    public enum ResourceType {
+        HTML,
+        PDF,
+        TEXT,
+        MISSING,
+        UNSUPPORTED,
+        TOO_LARGE
+    }
+}
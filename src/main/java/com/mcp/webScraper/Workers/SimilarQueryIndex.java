@@ -0,0 +1,239 @@
+package com.mcp.webScraper.Workers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds cached search queries that are rephrasings of a new one ("spring boot microservices" vs
+ * "microservices with spring boot"), so their results can be served instead of rendering another search page.
+ * Queries are reduced to token sets (stop words dropped, plurals folded) and indexed by MinHash signatures
+ * split into LSH bands; candidates sharing a band are confirmed by their exact Jaccard similarity
+ * against "cache.similarQuery.threshold". Bounded to the most recently used "cache.similarQuery.maxEntries" queries.
+ */
+@Service
+public class SimilarQueryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarQueryIndex.class);
+
+    // 8 bands of 4 rows: queries at Jaccard 0.8 share a band with ~98.5% probability, at 0.3 with ~6%
+    private static final int BANDS = 8;
+    private static final int ROWS = 4;
+    private static final int HASHES = BANDS * ROWS;
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < HASHES; i++) {
+            seed = mix(seed + i);
+            SEEDS[i] = seed;
+        }
+    }
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "and", "or", "of", "in", "on", "at", "to", "for", "with", "by", "from", "about",
+            "is", "are", "was", "be", "do", "does", "how", "what", "which", "why", "when", "where", "i", "my", "me", "using", "vs");
+
+    private final double threshold;
+    private final int maxEntries;
+    private final boolean refresh;
+
+    // Access-ordered, eldest first
+    private final LinkedHashMap<String, Indexed> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, List<String>> buckets = new HashMap<>();
+
+    // Queries whose own search is running in the background after an approximate hit
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong lookups = new AtomicLong(0);
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong candidates = new AtomicLong(0);
+    private final AtomicLong refreshes = new AtomicLong(0);
+
+    public SimilarQueryIndex(@Value("${cache.similarQuery.threshold:0.8}") double threshold,
+                             @Value("${cache.similarQuery.maxEntries:10000}") int maxEntries,
+                             @Value("${cache.similarQuery.refresh:true}") boolean refresh) {
+        this.threshold = threshold;
+        this.maxEntries = maxEntries;
+        this.refresh = refresh;
+        log.info("Similar query index: Jaccard >= {}, {} queries, background refresh {}", threshold, maxEntries, refresh);
+    }
+
+    /**
+     * Indexes a canonical query whose results are now cached.
+     */
+    public synchronized void add(String query) {
+        Set<String> tokens = tokens(query);
+        if (tokens.isEmpty() || entries.containsKey(query)) return;
+
+        Indexed indexed = new Indexed(tokens, bandKeys(signature(tokens)));
+        entries.put(query, indexed);
+        for (long band : indexed.bands) {
+            buckets.computeIfAbsent(band, b -> new ArrayList<>(2)).add(query);
+        }
+
+        if (entries.size() > maxEntries) {
+            remove(entries.keySet().iterator().next());
+        }
+    }
+
+    public synchronized boolean contains(String query) {
+        return entries.containsKey(query);
+    }
+
+    /**
+     * Most similar indexed query at or above the threshold, or null.
+     */
+    public synchronized String findSimilar(String query) {
+        lookups.incrementAndGet();
+        Set<String> tokens = tokens(query);
+        if (tokens.isEmpty()) return null;
+
+        Set<String> seen = new HashSet<>();
+        String best = null;
+        double bestSimilarity = threshold;
+        for (long band : bandKeys(signature(tokens))) {
+            List<String> bucket = buckets.get(band);
+            if (bucket == null) continue;
+
+            for (String candidate : bucket) {
+                if (candidate.equals(query) || !seen.add(candidate)) continue;
+                candidates.incrementAndGet();
+                double similarity = jaccard(tokens, entries.get(candidate).tokens);
+                if (similarity >= bestSimilarity) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+
+        if (best != null) {
+            entries.get(best);
+            hits.incrementAndGet();
+            log.debug("Query '{}' matched cached '{}' at Jaccard {}", query, best, bestSimilarity);
+        }
+        return best;
+    }
+
+    /**
+     * Drops a query, e.g. once its results are no longer cached.
+     */
+    public synchronized void remove(String query) {
+        Indexed indexed = entries.remove(query);
+        if (indexed == null) return;
+        for (long band : indexed.bands) {
+            List<String> bucket = buckets.get(band);
+            if (bucket == null) continue;
+            bucket.remove(query);
+            if (bucket.isEmpty()) buckets.remove(band);
+        }
+    }
+
+    /**
+     * Whether an approximate hit should also search the query itself in the background; false if one is already running.
+     * Pair with {@link #refreshDone(String)}.
+     */
+    public boolean startRefresh(String query) {
+        if (!refresh || !refreshing.add(query)) return false;
+        refreshes.incrementAndGet();
+        return true;
+    }
+
+    public void refreshDone(String query) {
+        refreshing.remove(query);
+    }
+
+    // SIMILAR QUERY INSIGHTS
+    public synchronized Map<String, Object> getIndexStatistics() {
+        long lookupCount = lookups.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("buckets", buckets.size());
+        stats.put("threshold", threshold);
+        stats.put("lookups", lookupCount);
+        stats.put("approximateHits", hits.get());
+        stats.put("hitRate", lookupCount > 0 ? Math.round(hits.get() * 1000.0 / lookupCount) / 1000.0 : 0);
+        stats.put("candidatesChecked", candidates.get());
+        stats.put("refreshes", refreshes.get());
+        return stats;
+    }
+
+    // Words without stop words, with plurals folded ("frameworks" -> "framework")
+    static Set<String> tokens(String query) {
+        Set<String> tokens = new HashSet<>();
+        for (String word : query.split("[\\s\\p{Punct}&&[^+#]]+")) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) continue;
+            if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+                word = word.substring(0, word.length() - 1);
+                if (STOP_WORDS.contains(word)) continue;
+            }
+            tokens.add(word);
+        }
+        return tokens;
+    }
+
+    static double jaccard(Set<String> a, Set<String> b) {
+        int common = 0;
+        for (String token : a) {
+            if (b.contains(token)) common++;
+        }
+        int union = a.size() + b.size() - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    private static long[] signature(Set<String> tokens) {
+        long[] signature = new long[HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String token : tokens) {
+            long hash = fnv1a(token);
+            for (int i = 0; i < HASHES; i++) {
+                signature[i] = Math.min(signature[i], mix(hash ^ SEEDS[i]));
+            }
+        }
+        return signature;
+    }
+
+    private static long[] bandKeys(long[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key * 31 + signature[band * ROWS + row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    private static long fnv1a(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Indexed(Set<String> tokens, long[] bands) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.mcp.webScraper.Workers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses the stealth profile of each page and measures what each profile costs.
+ * A profile requested explicitly wins, then the most specific "stealth.domains" entry
+ * (e.g. "linkedin.com=full,docs.oracle.com=off"), then the default of the scrape or search path.
+ */
+@Service
+public class StealthPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(StealthPolicy.class);
+
+    private final StealthProfile scrapeProfile;
+    private final StealthProfile searchProfile;
+    private final Map<String, StealthProfile> domainProfiles = new LinkedHashMap<>();
+    private final Map<StealthProfile, Cost> costs = new EnumMap<>(StealthProfile.class);
+
+    public StealthPolicy(@Value("${stealth.scrapeProfile:light}") String scrapeProfile,
+                         @Value("${stealth.searchProfile:full}") String searchProfile,
+                         @Value("${stealth.domains:}") String domains) {
+        this.scrapeProfile = orDefault(scrapeProfile, StealthProfile.LIGHT);
+        this.searchProfile = orDefault(searchProfile, StealthProfile.FULL);
+
+        for (String entry : domains.split(",")) {
+            int eq = entry.indexOf('=');
+            if (eq <= 0) continue;
+            StealthProfile profile = StealthProfile.parse(entry.substring(eq + 1));
+            if (profile == null) {
+                log.warn("Ignoring stealth override '{}'", entry.trim());
+                continue;
+            }
+            domainProfiles.put(entry.substring(0, eq).trim().toLowerCase(), profile);
+        }
+
+        for (StealthProfile profile : StealthProfile.values()) {
+            costs.put(profile, new Cost());
+        }
+        log.info("Stealth profiles: scrape={}, search={}, {} domain overrides",
+                this.scrapeProfile, this.searchProfile, domainProfiles.size());
+    }
+
+    /**
+     * Profile for scraping the URL; requested may be null.
+     */
+    public StealthProfile forScrape(String url, StealthProfile requested) {
+        if (requested != null) return requested;
+        StealthProfile domain = forHost(url);
+        return domain != null ? domain : scrapeProfile;
+    }
+
+    /**
+     * Profile for search engine pages.
+     */
+    public StealthProfile forSearch() {
+        return searchProfile;
+    }
+
+    /**
+     * Records the time from opening the page to having its content, and whether it succeeded.
+     */
+    public void record(StealthProfile profile, long millis, boolean success) {
+        Cost cost = costs.get(profile);
+        cost.pages.incrementAndGet();
+        cost.millis.addAndGet(millis);
+        if (!success) cost.failures.incrementAndGet();
+    }
+
+    // STEALTH INSIGHTS
+    public Map<String, Object> getStealthStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("scrapeProfile", scrapeProfile.name());
+        stats.put("searchProfile", searchProfile.name());
+        stats.put("domainOverrides", domainProfiles.size());
+
+        for (Map.Entry<StealthProfile, Cost> entry : costs.entrySet()) {
+            long pages = entry.getValue().pages.get();
+            Map<String, Object> cost = new LinkedHashMap<>();
+            cost.put("pages", pages);
+            cost.put("failures", entry.getValue().failures.get());
+            cost.put("avgPageMs", pages > 0 ? entry.getValue().millis.get() / pages : 0);
+            stats.put(entry.getKey().name().toLowerCase(), cost);
+        }
+        return stats;
+    }
+
+    private StealthProfile forHost(String url) {
+        if (domainProfiles.isEmpty()) return null;
+
+        String host = KeyCanonicalizer.host(url);
+        if (host == null) return null;
+
+        // Walk from the full host up to its registrable suffixes
+        while (true) {
+            StealthProfile profile = domainProfiles.get(host);
+            if (profile != null) return profile;
+            int dot = host.indexOf('.');
+            if (dot < 0) return null;
+            host = host.substring(dot + 1);
+        }
+    }
+
+    private static StealthProfile orDefault(String name, StealthProfile fallback) {
+        StealthProfile profile = StealthProfile.parse(name);
+        return profile != null ? profile : fallback;
+    }
+
+    private static class Cost {
+        final AtomicLong pages = new AtomicLong(0);
+        final AtomicLong failures = new AtomicLong(0);
+        final AtomicLong millis = new AtomicLong(0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mcp.webScraper.Workers;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.LIGHT_STEALTH_SCRIPT;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.STEALTH_SCRIPT;
+
+/**
+ * Evasion levels installed on a page before its first navigation.
+ * OFF installs nothing, LIGHT only redefines the automation giveaways once at page start,
+ * FULL adds the fingerprint noise, behaviour timers and fetch delays of STEALTH_SCRIPT.
+ */
+public enum StealthProfile {
+    OFF(null),
+    LIGHT(LIGHT_STEALTH_SCRIPT),
+    FULL(STEALTH_SCRIPT);
+
+    private final String script;
+
+    StealthProfile(String script) {
+        this.script = script;
+    }
+
+    public String getScript() {
+        return script;
+    }
+
+    /**
+     * Parses "off", "light" or "full" in any case; returns null for blank or unknown names.
+     */
+    public static StealthProfile parse(String name) {
+        if (name == null || name.isBlank()) return null;
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
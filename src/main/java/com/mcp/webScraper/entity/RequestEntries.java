@@ -23,6 +23,18 @@ public class RequestEntries {
     @JsonProperty("results")
     private int results = 3; // Default
 
+    @Min(value = 500, message = "Content length must be at least 500 characters")
+    @Max(value = 200000, message = "Content length cannot exceed 200000 characters")
+    @JsonProperty("maxContentLength")
+    private int maxContentLength = 5500; // Default
+
+    @JsonProperty("rankPassages")
+    private boolean rankPassages = false; // Default: head of the page
+
+    @Pattern(regexp = "(?i)off|light|full", message = "Stealth must be one of off, light or full")
+    @JsonProperty("stealth")
+    private String stealth; // Default: chosen per domain
+
     public RequestEntries() {
         this.requestId = generateRequestId();
     }
@@ -61,10 +73,34 @@ public class RequestEntries {
         this.results = Math.max(1, Math.min(10, results));
     }
 
+    public int getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    public void setMaxContentLength(int maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    public boolean isRankPassages() {
+        return rankPassages;
+    }
+
+    public void setRankPassages(boolean rankPassages) {
+        this.rankPassages = rankPassages;
+    }
+
+    public String getStealth() {
+        return stealth;
+    }
+
+    public void setStealth(String stealth) {
+        this.stealth = stealth;
+    }
+
     // Utility methods
     @Override
     public String toString() {
-        return String.format("RequestEntries{requestId=%d, query='%s', results=%d}",
-                requestId, query, results);
+        return String.format("RequestEntries{requestId=%d, query='%s', results=%d, maxContentLength=%d, rankPassages=%b, stealth=%s}",
+                requestId, query, results, maxContentLength, rankPassages, stealth);
     }
 }
\ No newline at end of file
@@ -10,6 +10,16 @@ public class ScrapeResult {
 
     private String error;
 
+    // Origin validators used for conditional revalidation of cached entries
+    private String etag;
+
+    private String lastModified;
+
+    private long fetchedAt = System.currentTimeMillis();
+
+    // SimHash of the content (hex); a cached page entry without content shares the body stored under it
+    private String contentHash;
+
     public ScrapeResult() {
     }
 
@@ -53,6 +63,47 @@ public class ScrapeResult {
         this.url = url;
     }
 
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(long fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    // Utility methods
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    public boolean isFresh(long maxAgeMs) {
+        return System.currentTimeMillis() - fetchedAt < maxAgeMs;
+    }
+
     @Override
     public String toString() {
         return "ScrapeResult{" +
@@ -1,5 +1,7 @@
 package com.mcp.webScraper.entity;
 
+import java.util.List;
+
 public class SearchResult {
 
     private boolean success;
@@ -12,6 +14,14 @@ public class SearchResult {
 
     private String error;
 
+    // Set when the result was cached for a similar query rather than searched for this one
+    private boolean approximate;
+
+    private String matchedQuery;
+
+    // Sources of results dropped from the response as near duplicates of this one
+    private List<String> duplicateSources;
+
     public SearchResult() {
     }
 
@@ -63,6 +73,30 @@ public class SearchResult {
         this.error = error;
     }
 
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    public String getMatchedQuery() {
+        return matchedQuery;
+    }
+
+    public void setMatchedQuery(String matchedQuery) {
+        this.matchedQuery = matchedQuery;
+    }
+
+    public List<String> getDuplicateSources() {
+        return duplicateSources;
+    }
+
+    public void setDuplicateSources(List<String> duplicateSources) {
+        this.duplicateSources = duplicateSources;
+    }
+
     @Override
     public String toString() {
         return "SearchResult{" +
@@ -71,6 +105,7 @@ public class SearchResult {
                 ", snippet='" + snippet + '\'' +
                 ", content='" + (content != null ? content.substring(0, Math.min(100, content.length())) + "..." : null) + '\'' +
                 ", error='" + error +
+                (approximate ? ", matchedQuery='" + matchedQuery + '\'' : "") +
                 '}';
     }
 }
@@ -0,0 +1,113 @@
+package com.mcp.webScraper.Services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.*;
+
+/**
+ * Speculatively scrapes the top search hits into the cache while the search page is still being parsed.
+ * Speculative work is capped by a concurrency limit and a per-minute budget, so a run of
+ * mispredictions cannot take browser slots away from real requests.
+ */
+@Service
+public class PrefetchServices {
+
+    private static final Logger log = LoggerFactory.getLogger(PrefetchServices.class);
+
+    @Autowired
+    private ScrapeServices scrapeServices;
+
+    private final Semaphore slots = new Semaphore(PREFETCH_MAX_CONCURRENT);
+
+    // URLs prefetched per request, reconciled against the final results
+    private final Cache<Integer, Set<String>> pending = Caffeine.newBuilder()
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .maximumSize(10000)
+            .build();
+
+    private final AtomicLong issued = new AtomicLong(0);
+    private final AtomicLong used = new AtomicLong(0);
+    private final AtomicLong wasted = new AtomicLong(0);
+    private final AtomicLong skipped = new AtomicLong(0);
+
+    // Token bucket for speculative scrapes
+    private double tokens = PREFETCH_BUDGET_PER_MINUTE;
+    private long lastRefill = System.nanoTime();
+
+    /**
+     * Starts a background scrape of the URL into the cache if the budget allows it.
+     */
+    public void prefetch(int requestId, String url, int maxContentLength) {
+        if (!takeToken() || !slots.tryAcquire()) {
+            skipped.incrementAndGet();
+            log.debug("Prefetch budget exhausted, skipping {}", url);
+            return;
+        }
+
+        issued.incrementAndGet();
+        pending.get(requestId, id -> ConcurrentHashMap.newKeySet()).add(url);
+
+        Thread.ofVirtual().name("prefetch-" + requestId).start(() -> {
+            try {
+                log.debug("Request {} prefetching {}", requestId, url);
+                scrapeServices.scrapeContent(requestId, url, maxContentLength);
+            } catch (Exception e) {
+                log.debug("Prefetch of {} failed: {}", url, e.getMessage());
+            } finally {
+                slots.release();
+            }
+        });
+    }
+
+    /**
+     * Compares the prefetched URLs of a request with its final results to track wasted work.
+     */
+    public void reconcile(int requestId, List<String> finalUrls) {
+        Set<String> prefetched = pending.asMap().remove(requestId);
+        if (prefetched == null) return;
+
+        for (String url : prefetched) {
+            if (finalUrls.contains(url)) {
+                used.incrementAndGet();
+            } else {
+                wasted.incrementAndGet();
+            }
+        }
+    }
+
+    private synchronized boolean takeToken() {
+        long now = System.nanoTime();
+        double elapsedMinutes = (now - lastRefill) / 60_000_000_000.0;
+        tokens = Math.min(PREFETCH_BUDGET_PER_MINUTE, tokens + elapsedMinutes * PREFETCH_BUDGET_PER_MINUTE);
+        lastRefill = now;
+
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+
+    // PREFETCH INSIGHTS
+    public Map<String, Long> getPrefetchStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("issued", issued.get());
+        stats.put("used", used.get());
+        stats.put("wasted", wasted.get());
+        stats.put("skipped", skipped.get());
+        stats.put("running", (long) (PREFETCH_MAX_CONCURRENT - slots.availablePermits()));
+        return stats;
+    }
+}
@@ -1,35 +1,197 @@
 package com.mcp.webScraper.Services;
 
+import com.mcp.webScraper.Configs.CachePolicy;
+import com.mcp.webScraper.Workers.BlocklistLearner;
+import com.mcp.webScraper.Workers.ContentDeduplicator;
+import com.mcp.webScraper.Workers.ContentProcessor;
+import com.mcp.webScraper.Workers.HostRateLimiter;
+import com.mcp.webScraper.Workers.HttpFetchClient;
+import com.mcp.webScraper.Workers.KeyCanonicalizer;
+import com.mcp.webScraper.Workers.PageCapture;
 import com.mcp.webScraper.Workers.PlaywrightAllocator;
 import com.mcp.webScraper.Workers.PlaywrightAllocator_withoutLock;
 import com.mcp.webScraper.Workers.PlaywrightWebScraperTools;
+import com.mcp.webScraper.Workers.ResourceRouter;
+import com.mcp.webScraper.Workers.StealthProfile;
 import com.mcp.webScraper.entity.ScrapeResult;
+import com.mcp.webScraper.utils.PassageRanker;
+import com.mcp.webScraper.utils.SimHash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static com.mcp.webScraper.Configs.CaffeineCacheConfig.SCRAPED_PAGES;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_CONTENT_LENGTH;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_FULL_CONTENT_LENGTH;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.PASSAGE_SCRAPE_FACTOR;
+
 @Service
 public class ScrapeServices {
 
     private static final Logger log = LoggerFactory.getLogger(ScrapeServices.class);
 
+    // Shared page bodies are cached under this prefix and their SimHash; canonical URLs never start with '#'
+    private static final String CONTENT_KEY_PREFIX = "#content:";
+
     @Autowired(required = false)
     private PlaywrightAllocator playwrightAllocator;
 
     @Autowired(required = false)
     private PlaywrightAllocator_withoutLock playwrightAllocatorWithoutLock;
 
-    @Cacheable(value = "scrapedPages", key = "#url")
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired(required = false)
+    private HttpFetchClient httpFetchClient;
+
+    @Autowired
+    private ResourceRouter resourceRouter;
+
+    @Autowired
+    private HostRateLimiter hostRateLimiter;
+
+    @Autowired
+    private ContentProcessor contentProcessor;
+
+    @Autowired
+    private BlocklistLearner blocklistLearner;
+
+    @Autowired
+    private CachePolicy cachePolicy;
+
+    @Autowired
+    private KeyCanonicalizer keyCanonicalizer;
+
+    @Autowired
+    private ContentDeduplicator contentDeduplicator;
+
+    // Scrapes currently running, keyed like the cache (by canonical URL)
+    private final ConcurrentHashMap<String, CompletableFuture<ScrapeResult>> inFlight = new ConcurrentHashMap<>();
+
     public ScrapeResult scrapeContent(int requestId, String url) {
+        return scrapeContent(requestId, url, MAX_CONTENT_LENGTH);
+    }
+
+    public ScrapeResult scrapeContent(int requestId, String url, int maxContentLength) {
+        return scrapeContent(requestId, url, maxContentLength, null);
+    }
+
+    /**
+     * Scrapes with an explicitly requested stealth profile; null lets the stealth policy choose by domain.
+     * The profile does not change the cache key, so a cached page is served whatever profile fetched it.
+     */
+    public ScrapeResult scrapeContent(int requestId, String url, int maxContentLength, StealthProfile stealth) {
         // Input validation
         if (url == null || url.trim().isEmpty()) {
             log.warn("Empty URL provided for scraping request {}", requestId);
             return createErrorResult(url, "Empty URL provided");
         }
 
+        String cacheKey = cacheKey(url, maxContentLength);
+        ScrapeResult cached = getCachedResult(requestId, url, cacheKey,
+                stale -> refreshInBackground(requestId, url, maxContentLength, cacheKey, stale));
+        if (cached != null) {
+            return cached;
+        }
+
+        // Join a scrape of the same page that is already running (e.g. a speculative prefetch)
+        CompletableFuture<ScrapeResult> pending = new CompletableFuture<>();
+        CompletableFuture<ScrapeResult> running = inFlight.putIfAbsent(cacheKey, pending);
+        if (running != null) {
+            log.debug("Request {} joined in-flight scrape of {}", requestId, url);
+            return running.join();
+        }
+
+        try {
+            ScrapeResult result = scrapeAndCache(requestId, url, maxContentLength, cacheKey, stealth);
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, pending);
+        }
+    }
+
+    /**
+     * Scrapes a larger slice of the page and returns the passages most relevant to the query
+     * within maxContentLength characters. The cached page itself is left untouched.
+     */
+    public ScrapeResult scrapeContentForQuery(int requestId, String url, String query, int maxContentLength) {
+        return scrapeContentForQuery(requestId, url, query, maxContentLength, null);
+    }
+
+    public ScrapeResult scrapeContentForQuery(int requestId, String url, String query, int maxContentLength,
+                                              StealthProfile stealth) {
+        ScrapeResult page = scrapeContent(requestId, url, rankedScrapeBudget(maxContentLength), stealth);
+        if (!page.isSuccess() || page.getContent() == null) {
+            return page;
+        }
+
+        ScrapeResult ranked = new ScrapeResult(true, PassageRanker.rank(page.getContent(), query, maxContentLength), url, null);
+        ranked.setEtag(page.getEtag());
+        ranked.setLastModified(page.getLastModified());
+        ranked.setFetchedAt(page.getFetchedAt());
+        return ranked;
+    }
+
+    // Content budget scraped when passages are ranked, so there is more than the head to choose from
+    public static int rankedScrapeBudget(int maxContentLength) {
+        return Math.min(MAX_FULL_CONTENT_LENGTH, Math.max(maxContentLength, maxContentLength * PASSAGE_SCRAPE_FACTOR));
+    }
+
+    private ScrapeResult scrapeAndCache(int requestId, String url, int maxContentLength, String cacheKey,
+                                        StealthProfile stealth) {
+        // Per-host politeness: wait for a slot, or fail fast while the host is backing off
+        ScrapeResult result;
+        try (HostRateLimiter.Permit permit = hostRateLimiter.acquire(url)) {
+            if (!permit.isGranted()) {
+                log.warn("Request {} not scraped: {}", requestId, permit.getReason());
+                return createErrorResult(url, permit.getReason());
+            }
+            result = scrapeWithAllocator(requestId, url, maxContentLength, cacheKey, stealth);
+        }
+
+        cacheResult(cacheKey, result);
+        return result;
+    }
+
+    /**
+     * Two-phase scrape: the borrowed instance only captures the raw page and is returned right away,
+     * the CPU-heavy extraction then runs on the content processor's pool.
+     * Non-HTML and dead URLs are routed by a probe first and never take a browser instance.
+     */
+    private ScrapeResult scrapeWithAllocator(int requestId, String url, int maxContentLength, String cacheKey,
+                                             StealthProfile stealth) {
+        PageCapture capture = resourceRouter.captureDirect(url, maxContentLength);
+        if (capture == null) {
+            capture = captureWithAllocator(requestId, url, maxContentLength, stealth);
+        }
+        if (capture == null) {
+            return createErrorResult(url, "Scraper service temporarily unavailable");
+        }
+
+        ScrapeResult result = contentProcessor.process(capture);
+        log.debug("Scraping completed for request {} - success: {}", requestId, result.isSuccess());
+
+        // Pages with trial-blocked hosts are judged against the previous scrape of the same page
+        if (!capture.getTrialHosts().isEmpty()) {
+            blocklistLearner.recordTrial(capture.getTrialHosts(), peekCached(cacheKey), result);
+        }
+        return result;
+    }
+
+    private PageCapture captureWithAllocator(int requestId, String url, int maxContentLength, StealthProfile stealth) {
         PlaywrightWebScraperTools scrapeTool = null;
 
         try {
@@ -37,26 +199,17 @@ public class ScrapeServices {
             scrapeTool = playwrightAllocator.borrowScraperInstance(requestId);
             if (scrapeTool == null) {
                 log.error("No scraper instance available for request {}", requestId);
-                return createErrorResult(url, "Scraper service temporarily unavailable");
+                return null;
             }
 
             log.debug("Scraping content for request {} from URL: {}", requestId, url);
 
-            // Perform scraping
-            ScrapeResult result = scrapeTool.scrapeWebpage(url);
-
-            // Null check
-            if (result == null) {
-                log.warn("Scraper returned null result for request {}", requestId);
-                return createErrorResult(url, "Scraping failed - no result");
-            }
-
-            log.debug("Scraping completed for request {} - success: {}", requestId, result.isSuccess());
-            return result;
+            // I/O phase only; the URL has already been routed as HTML
+            return scrapeTool.render(url, maxContentLength, stealth);
 
         } catch (Exception e) {
             log.error("Scraping failed for request {} on URL {}: {}", requestId, url, e.getMessage());
-            return createErrorResult(url, "Scraping operation failed: " + e.getMessage());
+            return PageCapture.failed(url, "Scraping operation failed: " + e.getMessage());
         } finally {
             // Always return the instance
             if (scrapeTool != null) {
@@ -65,13 +218,32 @@ public class ScrapeServices {
         }
     }
 
-    @Cacheable(value = "scrapedPages", key = "#url")
     public ScrapeResult scrapeContent_withoutLock(int requestId, String url) {
         if (url == null || url.trim().isEmpty()) {
             log.warn("Empty URL provided for scraping request {}", requestId);
             return createErrorResult(url, "Empty URL provided");
         }
 
+        String cacheKey = cacheKey(url, MAX_CONTENT_LENGTH);
+        ScrapeResult cached = getCachedResult(requestId, url, cacheKey, null);
+        if (cached != null) {
+            return cached;
+        }
+
+        ScrapeResult result;
+        try (HostRateLimiter.Permit permit = hostRateLimiter.acquire(url)) {
+            if (!permit.isGranted()) {
+                log.warn("Request {} not scraped: {}", requestId, permit.getReason());
+                return createErrorResult(url, permit.getReason());
+            }
+            result = scrapeWithoutLock(requestId, url);
+        }
+
+        cacheResult(cacheKey, result);
+        return result;
+    }
+
+    private ScrapeResult scrapeWithoutLock(int requestId, String url) {
         try {
             PlaywrightWebScraperTools scraperInstance = playwrightAllocatorWithoutLock.getScraperInstance_withoutLock(requestId);
 
@@ -97,6 +269,153 @@ public class ScrapeServices {
         }
     }
 
+    /**
+     * Returns the cached result if it is still fresh for the URL's freshness class. A page stale by less than
+     * the stale-while-revalidate window is returned as well and handed to staleRefresh, if given; an older one
+     * is only returned if the origin confirms with a conditional request (ETag / Last-Modified) that it has not changed.
+     * Failures are cached only for the negative TTL and never served stale.
+     */
+    private ScrapeResult getCachedResult(int requestId, String url, String cacheKey, Consumer<ScrapeResult> staleRefresh) {
+        Cache cache = cacheManager.getCache(SCRAPED_PAGES);
+        if (cache == null) return null;
+
+        ScrapeResult cached = withBody(cache, cache.get(cacheKey, ScrapeResult.class));
+        if (cached == null) return null;
+
+        long freshMs = cachePolicy.freshFor(url).toMillis();
+        if (cached.isFresh(freshMs)) {
+            log.debug("Cache hit for request {} on URL {}", requestId, url);
+            return cached;
+        }
+
+        if (!cached.isSuccess()) {
+            return null;
+        }
+
+        if (staleRefresh != null && cached.isFresh(freshMs + cachePolicy.getStaleWhileRevalidate().toMillis())) {
+            log.debug("Serving stale content for request {} on URL {} while it is refreshed", requestId, url);
+            staleRefresh.accept(cached);
+            return cached;
+        }
+
+        return revalidate(requestId, url, cacheKey, cached) ? cached : null;
+    }
+
+    // Conditional request for a stale entry; true and the entry's age reset if the origin has not changed it
+    private boolean revalidate(int requestId, String url, String cacheKey, ScrapeResult cached) {
+        if (!cached.hasValidators() || httpFetchClient == null) {
+            return false;
+        }
+
+        try {
+            if (httpFetchClient.isNotModified(url, cached.getEtag(), cached.getLastModified())) {
+                cached.setFetchedAt(System.currentTimeMillis());
+                cacheResult(cacheKey, cached);
+                log.debug("Revalidated cached content for request {} on URL {}", requestId, url);
+                return true;
+            }
+        } catch (Exception e) {
+            log.debug("Revalidation failed for request {} on URL {}: {}", requestId, url, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Revalidates or re-scrapes a stale page in the background, joining the in-flight map so a hot page
+     * is only refreshed once however many requests are served its stale copy meanwhile.
+     */
+    private void refreshInBackground(int requestId, String url, int maxContentLength, String cacheKey, ScrapeResult stale) {
+        CompletableFuture<ScrapeResult> pending = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(cacheKey, pending) != null) {
+            return;
+        }
+
+        Thread.ofVirtual().name("refresh-" + requestId).start(() -> {
+            try {
+                ScrapeResult result = revalidate(requestId, url, cacheKey, stale)
+                        ? stale
+                        : scrapeAndCache(requestId, url, maxContentLength, cacheKey, null);
+                pending.complete(result);
+            } catch (RuntimeException e) {
+                log.debug("Background refresh of {} failed: {}", url, e.getMessage());
+                pending.completeExceptionally(e);
+            } finally {
+                inFlight.remove(cacheKey, pending);
+            }
+        });
+    }
+
+    // Any cached entry, fresh or stale
+    private ScrapeResult peekCached(String cacheKey) {
+        Cache cache = cacheManager.getCache(SCRAPED_PAGES);
+        return cache != null ? withBody(cache, cache.get(cacheKey, ScrapeResult.class)) : null;
+    }
+
+    // A failed re-scrape does not replace a page that is still cached
+    private void cacheResult(String cacheKey, ScrapeResult result) {
+        Cache cache = cacheManager.getCache(SCRAPED_PAGES);
+        if (cache == null || result == null) return;
+
+        if (!result.isSuccess()) {
+            ScrapeResult cached = cache.get(cacheKey, ScrapeResult.class);
+            if (cached != null && cached.isSuccess()) return;
+        }
+        cache.put(cacheKey, contentAddressed(cache, cacheKey, result));
+    }
+
+    /**
+     * Stores the body under its SimHash, or under the fingerprint of a near-identical body already cached
+     * (syndicated copies, mirrors), and returns the page entry that points at it.
+     * A shared body is only written when absent, and refreshed only by the page that first wrote it,
+     * so copies re-scraped later neither rewrite nor keep alive another page's body.
+     */
+    private ScrapeResult contentAddressed(Cache cache, String cacheKey, ScrapeResult result) {
+        if (!result.isSuccess() || !contentDeduplicator.isEligible(result.getContent())) {
+            return result;
+        }
+
+        long fingerprint = contentDeduplicator.share(SimHash.fingerprint(result.getContent()), result.getContent().length());
+        String contentHash = SimHash.toHex(fingerprint);
+
+        // The body carries the cache key of the page that owns it in place of a URL
+        String contentKey = CONTENT_KEY_PREFIX + contentHash;
+        ScrapeResult body = new ScrapeResult(true, result.getContent(), cacheKey, null);
+        body.setContentHash(contentHash);
+        Cache.ValueWrapper existing = cache.putIfAbsent(contentKey, body);
+        if (existing != null && existing.get() instanceof ScrapeResult shared && cacheKey.equals(shared.getUrl())) {
+            cache.put(contentKey, body);
+        }
+
+        ScrapeResult page = new ScrapeResult(true, null, result.getUrl(), null);
+        page.setEtag(result.getEtag());
+        page.setLastModified(result.getLastModified());
+        page.setFetchedAt(result.getFetchedAt());
+        page.setContentHash(contentHash);
+        return page;
+    }
+
+    // The cached page with its shared body filled in; null if the body is no longer cached
+    private ScrapeResult withBody(Cache cache, ScrapeResult cached) {
+        if (cached == null || cached.getContent() != null || cached.getContentHash() == null) {
+            return cached;
+        }
+
+        ScrapeResult body = cache.get(CONTENT_KEY_PREFIX + cached.getContentHash(), ScrapeResult.class);
+        if (body == null) {
+            contentDeduplicator.forget(Long.parseUnsignedLong(cached.getContentHash(), 16));
+            return null;
+        }
+        cached.setContent(body.getContent());
+        return cached;
+    }
+
+    // Canonical URL, so tracking parameters, fragments and scheme or host case variants share an entry;
+    // pages scraped with a non-default content budget are cached separately
+    private String cacheKey(String url, int maxContentLength) {
+        String canonical = keyCanonicalizer.url(url);
+        return maxContentLength == MAX_CONTENT_LENGTH ? canonical : canonical + "#" + maxContentLength;
+    }
+
     // Error object response
     private ScrapeResult createErrorResult(String url, String errorMessage) {
         ScrapeResult errorResult = new ScrapeResult();
@@ -1,18 +1,26 @@
 package com.mcp.webScraper.Services;
 
+import com.mcp.webScraper.Workers.KeyCanonicalizer;
 import com.mcp.webScraper.Workers.PlaywrightAllocator;
 import com.mcp.webScraper.Workers.PlaywrightAllocator_withoutLock;
 import com.mcp.webScraper.Workers.PlaywrightBrowserSearchTools;
+import com.mcp.webScraper.Workers.SimilarQueryIndex;
 import com.mcp.webScraper.entity.SearchResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static com.mcp.webScraper.Configs.CaffeineCacheConfig.SEARCH_RESULTS;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.SEARCH_CACHED_RESULTS;
 
 @Service
 public class SearchServices {
@@ -25,8 +33,133 @@ public class SearchServices {
     @Autowired(required = false)
     private PlaywrightAllocator_withoutLock playwrightAllocatorWithoutLock;
 
-    @Cacheable(value = "searchResults", key = "#query + '_' + #maxResults")
+    @Autowired
+    private PrefetchServices prefetchServices;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private KeyCanonicalizer keyCanonicalizer;
+
+    @Autowired
+    private SimilarQueryIndex similarQueryIndex;
+
     public List<SearchResult> performSearch(int requestId, String query, int maxResults) {
+        IntFunction<List<SearchResult>> search = count -> search(requestId, query, count, null);
+        return cachedSearch(query, maxResults, search, search);
+    }
+
+    /**
+     * Performs a search and speculatively scrapes the top hits with the given content budget
+     * while the remaining results are still being extracted.
+     * Prefetches are reconciled against the results the caller gets, not everything extracted for the cache.
+     */
+    public List<SearchResult> performSearch(int requestId, String query, int maxResults, int maxContentLength) {
+        return cachedSearch(query, maxResults, count -> {
+            List<SearchResult> results = search(requestId, query, count,
+                    url -> prefetchServices.prefetch(requestId, url, maxContentLength));
+            prefetchServices.reconcile(requestId, head(results, maxResults).stream().map(SearchResult::getSource).toList());
+            return results;
+        }, count -> search(requestId, query, count, null));
+    }
+
+    /**
+     * Searches through the cache, keyed by the canonical query. Cached searches extract at least SEARCH_CACHED_RESULTS,
+     * so the cached list serves any request for up to that many results by its head.
+     * Without a cache only the requested results are extracted.
+     * Goes through Cache.get(key, loader), so a stale list is served while a single refresh runs.
+     * A query never searched before may instead be served the results of a cached rephrasing of it,
+     * marked approximate, while its own search runs in the background.
+     * Background searches, stale refreshes included, go through backgroundSearch,
+     * which must not prefetch, as nobody waits for those results.
+     */
+    private List<SearchResult> cachedSearch(String query, int maxResults, IntFunction<List<SearchResult>> search,
+                                            IntFunction<List<SearchResult>> backgroundSearch) {
+        Cache cache = cacheManager.getCache(SEARCH_RESULTS);
+        if (cache == null) {
+            return head(search.apply(maxResults), maxResults);
+        }
+
+        int count = Math.max(maxResults, SEARCH_CACHED_RESULTS);
+
+        String key = keyCanonicalizer.query(query);
+        if (count > SEARCH_CACHED_RESULTS) {
+            key += "_" + count;
+        } else if (!similarQueryIndex.contains(key)) {
+            List<SearchResult> approximate = similarResults(cache, key, maxResults, backgroundSearch);
+            if (approximate != null) {
+                return approximate;
+            }
+        }
+
+        // The loader also serves the cache's background refresh of a stale list; only the caller's own miss,
+        // loaded on this thread, may use the prefetching search
+        String cacheKey = key;
+        Thread caller = Thread.currentThread();
+        return head(cache.get(cacheKey, () -> {
+            List<SearchResult> results = (Thread.currentThread() == caller ? search : backgroundSearch).apply(count);
+            if (count == SEARCH_CACHED_RESULTS && isUsable(results)) {
+                similarQueryIndex.add(cacheKey);
+            }
+            return results;
+        }), maxResults);
+    }
+
+    // Results cached for a similar query, or null if there is none
+    @SuppressWarnings("unchecked")
+    private List<SearchResult> similarResults(Cache cache, String key, int maxResults,
+                                              IntFunction<List<SearchResult>> backgroundSearch) {
+        String similar = similarQueryIndex.findSimilar(key);
+        if (similar == null) return null;
+
+        // Cached itself but not indexed, e.g. read back from disk after a restart
+        if (cache.get(key) != null) {
+            similarQueryIndex.add(key);
+            return null;
+        }
+
+        Cache.ValueWrapper cached = cache.get(similar);
+        if (cached == null || !(cached.get() instanceof List<?> list) || !isUsable(list)) {
+            similarQueryIndex.remove(similar);
+            return null;
+        }
+
+        if (similarQueryIndex.startRefresh(key)) {
+            Thread.ofVirtual().name("similar-refresh").start(() -> {
+                try {
+                    cache.get(key, () -> {
+                        List<SearchResult> results = backgroundSearch.apply(SEARCH_CACHED_RESULTS);
+                        if (isUsable(results)) similarQueryIndex.add(key);
+                        return results;
+                    });
+                } catch (RuntimeException e) {
+                    log.debug("Background search for '{}' failed: {}", key, e.getMessage());
+                } finally {
+                    similarQueryIndex.refreshDone(key);
+                }
+            });
+        }
+
+        List<SearchResult> results = head((List<SearchResult>) list, maxResults);
+        for (SearchResult result : results) {
+            result.setApproximate(true);
+            result.setMatchedQuery(similar);
+        }
+        return results;
+    }
+
+    private static boolean isUsable(List<?> results) {
+        return results != null && results.stream().anyMatch(result -> result instanceof SearchResult search && search.isSuccess());
+    }
+
+    // Copy, as callers fill in the content of the results they get
+    private static List<SearchResult> head(List<SearchResult> results, int maxResults) {
+        if (results == null) return new ArrayList<>();
+        return new ArrayList<>(results.subList(0, Math.min(maxResults, results.size())));
+    }
+
+    private List<SearchResult> search(int requestId, String query, int maxResults, Consumer<String> earlyResultListener) {
         // Input validation
         if (query == null || query.trim().isEmpty()) {
             log.warn("Empty query provided for request {}", requestId);
@@ -46,7 +179,7 @@ public class SearchServices {
             log.debug("Performing search for request {} with query: '{}'", requestId, query);
 
             // Perform search
-            List<SearchResult> results = searchTool.playwrightSearch(query, maxResults, "duckduckgo");
+            List<SearchResult> results = searchTool.playwrightSearch(query, maxResults, "duckduckgo", earlyResultListener);
 
             // Null check
             if (results == null) {
@@ -68,8 +201,12 @@ public class SearchServices {
         }
     }
 
-    @Cacheable(value = "searchResults", key = "#query + '_' + #maxResults")
     public List<SearchResult> performSearch_withoutLock(int requestId, String query, int maxResults) {
+        IntFunction<List<SearchResult>> search = count -> search_withoutLock(requestId, query, count);
+        return cachedSearch(query, maxResults, search, search);
+    }
+
+    private List<SearchResult> search_withoutLock(int requestId, String query, int maxResults) {
         if (query == null || query.trim().isEmpty()) {
             log.warn("Empty query provided for request {}", requestId);
             return new ArrayList<>();
@@ -0,0 +1,184 @@
+package com.mcp.webScraper.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.PASSAGE_TARGET_LENGTH;
+
+/**
+ * Query-focused passage selection.
+ * The text is split into sentence-aligned passages, which are scored against the query with BM25
+ * over a small index built for this one text. The best passages that fit the character budget
+ * are returned in document order, so long pages yield the parts that answer the query instead of the preamble.
+ */
+public final class PassageRanker {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final String GAP = " ... ";
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "how", "in", "is", "it", "of", "on",
+            "or", "that", "the", "this", "to", "was", "what", "when", "where", "which", "who", "why", "with");
+
+    private PassageRanker() {
+    }
+
+    /**
+     * Returns the passages of text most relevant to the query within charBudget characters.
+     * Falls back to the head of the text when it already fits or the query matches nothing.
+     */
+    public static String rank(String text, String query, int charBudget) {
+        if (text == null || text.length() <= charBudget) {
+            return text;
+        }
+
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return TextNormalizer.normalize(text, charBudget);
+        }
+
+        List<String> passages = split(text);
+        double[] scores = score(passages, queryTerms);
+
+        Integer[] order = new Integer[passages.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+
+        if (scores[order[0]] <= 0) {
+            return TextNormalizer.normalize(text, charBudget);
+        }
+
+        // Take the best passages that fit, then restore document order
+        boolean[] selected = new boolean[passages.size()];
+        int used = 0;
+        for (int index : order) {
+            if (scores[index] <= 0) break;
+            int cost = passages.get(index).length() + GAP.length();
+            if (used + cost > charBudget) continue;
+            selected[index] = true;
+            used += cost;
+        }
+
+        StringBuilder result = new StringBuilder(used);
+        int previous = -1;
+        for (int i = 0; i < selected.length; i++) {
+            if (!selected[i]) continue;
+            if (result.length() > 0 || i > 0) {
+                result.append(previous == i - 1 ? " " : GAP);
+            }
+            result.append(passages.get(i));
+            previous = i;
+        }
+
+        // A single passage larger than the whole budget: cut the best one
+        if (result.isEmpty()) {
+            return TextNormalizer.normalize(passages.get(order[0]), charBudget);
+        }
+        return result.toString().trim();
+    }
+
+    // Groups sentences into passages of about PASSAGE_TARGET_LENGTH characters
+    static List<String> split(String text) {
+        List<String> passages = new ArrayList<>();
+        int start = 0;
+        int length = text.length();
+
+        while (start < length) {
+            int end = Math.min(length, start + PASSAGE_TARGET_LENGTH);
+            if (end < length) {
+                int sentenceEnd = lastSentenceEnd(text, start + PASSAGE_TARGET_LENGTH / 2, end);
+                if (sentenceEnd > 0) {
+                    end = sentenceEnd;
+                } else {
+                    int space = text.lastIndexOf(' ', end);
+                    if (space > start) end = space;
+                }
+            }
+
+            String passage = text.substring(start, end).trim();
+            if (!passage.isEmpty()) {
+                passages.add(passage);
+            }
+            start = end;
+        }
+        return passages;
+    }
+
+    private static int lastSentenceEnd(String text, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            char c = text.charAt(i);
+            if ((c == '.' || c == '!' || c == '?') && i + 1 < text.length() && text.charAt(i + 1) == ' ') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    // BM25 of every passage against the query terms
+    private static double[] score(List<String> passages, List<String> queryTerms) {
+        int count = passages.size();
+        List<Map<String, Integer>> frequencies = new ArrayList<>(count);
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        int[] lengths = new int[count];
+        long totalLength = 0;
+
+        for (int i = 0; i < count; i++) {
+            List<String> terms = tokenize(passages.get(i));
+            Map<String, Integer> tf = new HashMap<>();
+            for (String term : terms) {
+                tf.merge(term, 1, Integer::sum);
+            }
+            for (String term : tf.keySet()) {
+                documentFrequency.merge(term, 1, Integer::sum);
+            }
+            frequencies.add(tf);
+            lengths[i] = terms.size();
+            totalLength += terms.size();
+        }
+
+        double averageLength = count == 0 ? 0 : (double) totalLength / count;
+        double[] scores = new double[count];
+        for (int i = 0; i < count; i++) {
+            Map<String, Integer> tf = frequencies.get(i);
+            double score = 0;
+            for (String term : queryTerms) {
+                Integer frequency = tf.get(term);
+                if (frequency == null) continue;
+
+                int df = documentFrequency.get(term);
+                double idf = Math.log(1 + (count - df + 0.5) / (df + 0.5));
+                double norm = K1 * (1 - B + B * lengths[i] / Math.max(1, averageLength));
+                score += idf * frequency * (K1 + 1) / (frequency + norm);
+            }
+            scores[i] = score;
+        }
+        return scores;
+    }
+
+    // Lower-cased letter/digit runs without stop words
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+
+        StringBuilder term = new StringBuilder();
+        for (int i = 0, length = text.length(); i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (!term.isEmpty()) {
+                String token = term.toString();
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    terms.add(token);
+                }
+                term.setLength(0);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,202 @@
+package com.mcp.webScraper.utils;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Readability-style main content extractor working on a Jsoup DOM.
+ * Paragraph-like nodes are scored by text length and commas, scores propagate to their ancestors
+ * and are adjusted by tag semantics, class/id hints and link density. The best node, plus siblings
+ * that score close to it, is returned as text. It needs no rendering and no selector waits, so it
+ * serves HTML captured from the browser as well as HTML fetched over plain HTTP.
+ */
+public final class ReadabilityExtractor {
+
+    // Nodes that never carry article text
+    private static final String BOILERPLATE_TAGS =
+            "script, style, noscript, iframe, svg, canvas, template, nav, header, footer, aside, form, button, "
+                    + "select, input, textarea, img, picture, source, video, audio, object, embed";
+
+    private static final Pattern UNLIKELY = Pattern.compile(
+            "banner|breadcrumb|combx|comment|community|consent|cookie|disqus|extra|foot|gdpr|header|legends|menu|"
+                    + "modal|nav|newsletter|pager|pagination|popup|promo|related|remark|rss|share|shoutbox|sidebar|"
+                    + "skyscraper|social|sponsor|subscribe|tags|tool|widget|advert|ad-break|agegate",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern MAYBE_CANDIDATE = Pattern.compile(
+            "and|article|body|column|content|main|shadow|post|entry|story|text",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern POSITIVE = Pattern.compile(
+            "article|body|content|entry|hentry|h-entry|main|page|post|text|blog|story|prose|markdown",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern NEGATIVE = Pattern.compile(
+            "hidden|banner|combx|comment|contact|foot|footer|footnote|gdpr|cookie|masthead|media|meta|outbrain|"
+                    + "promo|related|scroll|share|shoutbox|sidebar|skyscraper|sponsor|shopping|tags|tool|widget|nav|menu",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final String SCORED_TAGS = "p, pre, td, blockquote, li, h2, h3, section, div";
+
+    private static final int MIN_PARAGRAPH_LENGTH = 25;
+    private static final double SIBLING_SCORE_RATIO = 0.2;
+    private static final double MIN_SIBLING_SCORE = 10;
+
+    private ReadabilityExtractor() {
+    }
+
+    /**
+     * Parses the HTML and extracts its main content text.
+     */
+    public static String extract(String html, String baseUri) {
+        if (html == null || html.isEmpty()) return "";
+        return extract(Jsoup.parse(html, baseUri != null ? baseUri : ""));
+    }
+
+    /**
+     * Extracts the main content text. The document is pruned in place.
+     */
+    public static String extract(Document document) {
+        Element body = document.body();
+        if (body == null) return "";
+
+        prune(body);
+
+        Map<Element, Double> scores = scoreCandidates(body);
+
+        Element top = null;
+        double topScore = 0;
+        for (Map.Entry<Element, Double> entry : scores.entrySet()) {
+            if (entry.getValue() > topScore) {
+                topScore = entry.getValue();
+                top = entry.getKey();
+            }
+        }
+
+        if (top == null) {
+            return body.text();
+        }
+        return collectWithSiblings(top, topScore, scores);
+    }
+
+    // Removes boilerplate tags, hidden nodes and nodes whose class/id marks them as page chrome
+    private static void prune(Element body) {
+        body.select(BOILERPLATE_TAGS).remove();
+        body.select("[hidden], [aria-hidden=true], [role=navigation], [role=banner], [role=contentinfo], "
+                + "[role=complementary], [role=dialog]").remove();
+
+        List<Element> unlikely = new ArrayList<>();
+        for (Element element : body.getAllElements()) {
+            if (element == body) continue;
+            String tag = element.normalName();
+            if (tag.equals("article") || tag.equals("main")) continue;
+
+            String hints = hints(element);
+            if (!hints.isEmpty() && UNLIKELY.matcher(hints).find() && !MAYBE_CANDIDATE.matcher(hints).find()) {
+                unlikely.add(element);
+            }
+        }
+        unlikely.forEach(Element::remove);
+    }
+
+    // Scores paragraph-like nodes and propagates the score to parent and grandparent, then applies link density
+    private static Map<Element, Double> scoreCandidates(Element body) {
+        Map<Element, Double> scores = new IdentityHashMap<>();
+
+        for (Element element : body.select(SCORED_TAGS)) {
+            // Containers only count for the text they hold directly, not through scored children
+            String tag = element.normalName();
+            String text = tag.equals("div") || tag.equals("section") ? element.ownText() : element.text();
+            if (text.length() < MIN_PARAGRAPH_LENGTH) continue;
+
+            double score = 1 + countCommas(text) + Math.min(text.length() / 100.0, 3);
+
+            Element ancestor = element.parent();
+            for (int level = 0; ancestor != null && level < 3; level++) {
+                double share = level == 0 ? score : level == 1 ? score / 2 : score / 6;
+                scores.computeIfAbsent(ancestor, ReadabilityExtractor::initialScore);
+                scores.merge(ancestor, share, Double::sum);
+                if (ancestor == body) break;
+                ancestor = ancestor.parent();
+            }
+        }
+
+        scores.replaceAll((element, score) -> score * (1 - linkDensity(element)));
+        return scores;
+    }
+
+    // Adds siblings that look like continuations of the top candidate, in document order
+    private static String collectWithSiblings(Element top, double topScore, Map<Element, Double> scores) {
+        Element parent = top.parent();
+        if (parent == null) return top.text();
+
+        double threshold = Math.max(MIN_SIBLING_SCORE, topScore * SIBLING_SCORE_RATIO);
+
+        StringBuilder text = new StringBuilder();
+        for (Element sibling : parent.children()) {
+            boolean include = sibling == top || scores.getOrDefault(sibling, 0.0) >= threshold;
+            if (!include && sibling.normalName().equals("p")) {
+                include = sibling.text().length() > 80 && linkDensity(sibling) < 0.25;
+            }
+            if (include) {
+                if (!text.isEmpty()) text.append(' ');
+                text.append(sibling.text());
+            }
+        }
+        return text.toString();
+    }
+
+    private static double initialScore(Element element) {
+        double score = switch (element.normalName()) {
+            case "article", "main" -> 10;
+            case "div", "section" -> 5;
+            case "pre", "td", "blockquote" -> 3;
+            case "address", "ol", "ul", "dl", "dd", "dt", "li" -> -3;
+            case "h1", "h2", "h3", "h4", "h5", "h6", "th" -> -5;
+            default -> 0;
+        };
+        if ("main".equals(element.attr("role"))) score += 10;
+
+        String hints = hints(element);
+        if (!hints.isEmpty()) {
+            if (POSITIVE.matcher(hints).find()) score += 25;
+            if (NEGATIVE.matcher(hints).find()) score -= 25;
+        }
+        return score;
+    }
+
+    // Share of the node's text that sits inside links
+    private static double linkDensity(Element element) {
+        int textLength = element.text().length();
+        if (textLength == 0) return 0;
+
+        int linkLength = 0;
+        for (Element link : element.select("a")) {
+            linkLength += link.text().length();
+        }
+        return Math.min(1, (double) linkLength / textLength);
+    }
+
+    private static String hints(Element element) {
+        String className = element.className();
+        String id = element.id();
+        if (className.isEmpty()) return id;
+        if (id.isEmpty()) return className;
+        return className + " " + id;
+    }
+
+    private static int countCommas(String text) {
+        int commas = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ',') commas++;
+        }
+        return commas;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mcp.webScraper.utils;
+
+/**
+ * 64-bit SimHash of a text over overlapping three-word shingles.
+ * Texts that differ in a few words (a byline, a share widget, a version number) land within a few bits
+ * of each other, while unrelated texts differ in about half of the 64 bits.
+ */
+public final class SimHash {
+
+    private static final int SHINGLE_WORDS = 3;
+
+    private SimHash() {
+    }
+
+    public static long fingerprint(CharSequence text) {
+        if (text == null) return 0;
+
+        int[] weights = new int[64];
+        long[] window = new long[SHINGLE_WORDS];
+        int words = 0;
+
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            // Next word of letters and digits, lower-cased on the fly
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i >= length) break;
+            long word = 0xcbf29ce484222325L;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                word ^= Character.toLowerCase(text.charAt(i++));
+                word *= 0x100000001b3L;
+            }
+
+            window[words % SHINGLE_WORDS] = word;
+            words++;
+            if (words >= SHINGLE_WORDS) {
+                add(weights, shingle(window, words));
+            }
+        }
+
+        // Too short for a full shingle: use the words seen
+        if (words > 0 && words < SHINGLE_WORDS) {
+            add(weights, shingle(window, words));
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) fingerprint |= 1L << bit;
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    public static String toHex(long fingerprint) {
+        return String.format("%016x", fingerprint);
+    }
+
+    // Order-sensitive combination of the last min(words, SHINGLE_WORDS) words
+    private static long shingle(long[] window, int words) {
+        long hash = 0;
+        int count = Math.min(words, SHINGLE_WORDS);
+        for (int k = count; k > 0; k--) {
+            hash = mix(hash * 31 + window[(words - k) % SHINGLE_WORDS]);
+        }
+        return hash;
+    }
+
+    private static void add(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
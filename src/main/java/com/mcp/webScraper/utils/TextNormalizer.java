@@ -0,0 +1,120 @@
+package com.mcp.webScraper.utils;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.CONTENT_TRUNCATE_THRESHOLD;
+
+/**
+ * Single-pass, streaming text normalizer shared by HTML, PDF and plain-text extraction.
+ * Collapses whitespace runs to one space, trims, drops control and zero-width characters and
+ * enforces a character budget at a word boundary, without regexes or intermediate copies.
+ * Text can be appended in chunks (e.g. page by page); once the budget is filled further input is ignored.
+ */
+public class TextNormalizer {
+
+    private static final String ELLIPSIS = "...";
+
+    private final int charBudget;
+    private final StringBuilder out;
+    private boolean pendingSpace;
+    private boolean full;
+
+    public TextNormalizer(int charBudget) {
+        this(charBudget, 1024);
+    }
+
+    public TextNormalizer(int charBudget, int expectedLength) {
+        this.charBudget = charBudget;
+        this.out = new StringBuilder(Math.max(16, Math.min(charBudget, expectedLength) + ELLIPSIS.length()));
+    }
+
+    /**
+     * Normalizes the text and truncates it to charBudget characters (plus an ellipsis).
+     */
+    public static String normalize(CharSequence text, int charBudget) {
+        if (text == null) return "";
+        return new TextNormalizer(charBudget, text.length()).append(text).toString();
+    }
+
+    /**
+     * Normalizes the text without a budget.
+     */
+    public static String normalize(CharSequence text) {
+        return normalize(text, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Appends a chunk of text. Whitespace at chunk boundaries is collapsed like any other run.
+     */
+    public TextNormalizer append(CharSequence text) {
+        if (text == null) return this;
+
+        int length = text.length();
+        for (int i = 0; i < length && !full; i++) {
+            char c = text.charAt(i);
+
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (isInvisible(c)) {
+                continue;
+            }
+
+            if (pendingSpace) {
+                if (out.length() >= charBudget) {
+                    truncate(true);
+                    return this;
+                }
+                out.append(' ');
+                pendingSpace = false;
+            }
+
+            if (out.length() >= charBudget) {
+                truncate(false);
+                return this;
+            }
+            out.append(c);
+        }
+        return this;
+    }
+
+    /**
+     * Returns true once the budget has been filled; callers can stop producing text.
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    public int length() {
+        return out.length();
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    // Cuts at the last space close to the budget, or at the budget itself
+    private void truncate(boolean spaceAtBudget) {
+        int cut = out.length();
+        if (!spaceAtBudget) {
+            int lastSpace = out.lastIndexOf(" ");
+            if (lastSpace > Math.max(0, charBudget - CONTENT_TRUNCATE_THRESHOLD)) {
+                cut = lastSpace;
+            }
+        }
+        if (cut > 0 && Character.isHighSurrogate(out.charAt(cut - 1))) {
+            cut--;
+        }
+
+        out.setLength(cut);
+        out.append(ELLIPSIS);
+        full = true;
+    }
+
+    // Control characters and zero-width/format characters that carry no visible text
+    private static boolean isInvisible(char c) {
+        return Character.isISOControl(c)
+                || c == '\u200B' || c == '\u200C' || c == '\u200D'
+                || c == '\u2060' || c == '\uFEFF' || c == '\u00AD';
+    }
+}
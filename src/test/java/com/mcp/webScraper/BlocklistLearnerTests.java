@@ -0,0 +1,256 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.JsonObject;
+import com.mcp.webScraper.Workers.BlocklistLearner;
+import com.mcp.webScraper.Workers.RequestBlocklist;
+import com.mcp.webScraper.entity.ScrapeResult;
+import com.microsoft.playwright.CDPSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.LEARN_MAX_CHANGED_TRIALS;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.LEARN_MIN_CONTENT_LENGTH;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.LEARN_MIN_PAGES;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.LEARN_MIN_TRIALS;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.LEARN_TRIAL_HOSTS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlocklistLearnerTests {
+
+    private static final String CONTENT = "word ".repeat(LEARN_MIN_CONTENT_LENGTH / 5 + 10).strip();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void hostsAreTrialledOnceSeenOnEnoughPages() {
+        BlocklistLearner learner = learner(new RequestBlocklist());
+        for (int page = 0; page < LEARN_MIN_PAGES - 1; page++) {
+            visit(learner, "https://news.example.com/" + page, "https://widget.example.net/w.js");
+        }
+        assertThat(trialHosts(learner)).isEmpty();
+
+        visit(learner, "https://news.example.com/last", "https://widget.example.net/w.js");
+        assertThat(trialHosts(learner)).containsExactly("widget.example.net");
+    }
+
+    @Test
+    void firstPartyRequestsAreNotObserved() {
+        BlocklistLearner learner = learner(new RequestBlocklist());
+        for (int page = 0; page < LEARN_MIN_PAGES; page++) {
+            visit(learner, "https://www.example.co.uk/" + page, "https://static.example.co.uk/app.js");
+        }
+        assertThat(topHosts(learner)).isEmpty();
+        assertThat(learner.getLearnerStatistics()).containsEntry("observedPages", (long) LEARN_MIN_PAGES);
+    }
+
+    @Test
+    void trialsPreferTheHeaviestHosts() {
+        BlocklistLearner learner = learner(new RequestBlocklist());
+        for (int page = 0; page < LEARN_MIN_PAGES; page++) {
+            FakeCdp cdp = new FakeCdp();
+            learner.observe(cdp, "https://news.example.com/" + page, Set.of());
+            for (int host = 0; host <= LEARN_TRIAL_HOSTS; host++) {
+                cdp.load("https://cdn" + host + ".example.net/x.js", 1000L * (host + 1));
+            }
+        }
+        Set<String> expected = new HashSet<>();
+        for (int host = 1; host <= LEARN_TRIAL_HOSTS; host++) expected.add("cdn" + host + ".example.net");
+        assertThat(trialHosts(learner)).isEqualTo(expected);
+    }
+
+    @Test
+    void hostIsLearnedAfterEnoughSafeTrials() {
+        RequestBlocklist blocklist = new RequestBlocklist();
+        BlocklistLearner learner = learner(blocklist);
+        for (int page = 0; page < LEARN_MIN_PAGES; page++) {
+            visit(learner, "https://news.example.com/" + page, "https://widget.example.net/w.js");
+        }
+
+        ScrapeResult previous = result(CONTENT);
+        // Nothing to compare with, so the trial is not judged
+        learner.recordTrial(Set.of("widget.example.net"), null, result(CONTENT));
+        assertThat(topHosts(learner).get("widget.example.net")).containsEntry("safeTrials", 0L);
+
+        for (int trial = 0; trial < LEARN_MIN_TRIALS - 1; trial++) {
+            learner.recordTrial(Set.of("widget.example.net"), previous, result(CONTENT));
+        }
+        assertThat(learned(learner)).isEmpty();
+        assertThat(blocklist.blocks("https://widget.example.net/w.js", "script")).isFalse();
+
+        learner.recordTrial(Set.of("widget.example.net"), previous, result(CONTENT));
+        assertThat(learned(learner)).containsExactly("widget.example.net");
+        assertThat(blocklist.blocks("https://widget.example.net/w.js", "script")).isTrue();
+        assertThat(trialHosts(learner)).isEmpty();
+    }
+
+    @Test
+    void aChangedTrialRestartsTheSafeTrials() {
+        RequestBlocklist blocklist = new RequestBlocklist();
+        BlocklistLearner learner = learner(blocklist);
+        for (int page = 0; page < LEARN_MIN_PAGES; page++) {
+            visit(learner, "https://news.example.com/" + page, "https://player.example.net/p.js");
+        }
+
+        ScrapeResult previous = result(CONTENT);
+        for (int trial = 0; trial < LEARN_MIN_TRIALS - 1; trial++) {
+            learner.recordTrial(Set.of("player.example.net"), previous, result(CONTENT));
+        }
+        learner.recordTrial(Set.of("player.example.net"), previous, result("too short"));
+        assertThat(topHosts(learner).get("player.example.net"))
+                .containsEntry("safeTrials", 0L)
+                .containsEntry("changedTrials", 1L);
+        assertThat(trialHosts(learner)).containsExactly("player.example.net");
+
+        for (int trial = 0; trial < LEARN_MIN_TRIALS - 1; trial++) {
+            learner.recordTrial(Set.of("player.example.net"), previous, result(CONTENT));
+        }
+        assertThat(learned(learner)).isEmpty();
+
+        learner.recordTrial(Set.of("player.example.net"), previous, result(CONTENT));
+        assertThat(learned(learner)).containsExactly("player.example.net");
+        assertThat(blocklist.blocks("https://player.example.net/p.js", "script")).isTrue();
+    }
+
+    @Test
+    void repeatedlyChangedTrialsStopTrialling() {
+        BlocklistLearner learner = learner(new RequestBlocklist());
+        for (int page = 0; page < LEARN_MIN_PAGES; page++) {
+            visit(learner, "https://news.example.com/" + page, "https://player.example.net/p.js");
+        }
+
+        ScrapeResult previous = result(CONTENT);
+        for (int trial = 0; trial < LEARN_MAX_CHANGED_TRIALS; trial++) {
+            learner.recordTrial(Set.of("player.example.net"), previous, result("too short"));
+        }
+        for (int trial = 0; trial < LEARN_MIN_TRIALS * 2; trial++) {
+            learner.recordTrial(Set.of("player.example.net"), previous, result(CONTENT));
+        }
+
+        assertThat(learned(learner)).isEmpty();
+        assertThat(topHosts(learner).get("player.example.net"))
+                .containsEntry("changedTrials", (long) LEARN_MAX_CHANGED_TRIALS);
+        assertThat(trialHosts(learner)).isEmpty();
+    }
+
+    @Test
+    void learnedHostsAreSavedToANewDirectory() {
+        BlocklistLearner learner = new BlocklistLearner(new RequestBlocklist(), new ObjectMapper(),
+                dir.resolve("state/learned.json").toString());
+        learner.pin("tracker.example.org", true);
+
+        RequestBlocklist reloaded = new RequestBlocklist();
+        new BlocklistLearner(reloaded, new ObjectMapper(), dir.resolve("state/learned.json").toString());
+        assertThat(reloaded.blocks("https://tracker.example.org/t.js", "script")).isTrue();
+    }
+
+    @Test
+    void pinsOverrideLearningAndArePersisted() {
+        RequestBlocklist blocklist = new RequestBlocklist();
+        BlocklistLearner learner = learner(blocklist);
+        learner.pin(" Tracker.Example.org ", true);
+        learner.pin("doubleclick.net", false);
+        assertThat(blocklist.blocks("https://tracker.example.org/t.js", "script")).isTrue();
+        assertThat(blocklist.blocks("https://doubleclick.net/ad", "script")).isFalse();
+
+        RequestBlocklist reloaded = new RequestBlocklist();
+        learner(reloaded);
+        assertThat(reloaded.blocks("https://tracker.example.org/t.js", "script")).isTrue();
+        assertThat(reloaded.blocks("https://doubleclick.net/ad", "script")).isFalse();
+
+        learner.unpin("doubleclick.net");
+        assertThat(blocklist.blocks("https://doubleclick.net/ad", "script")).isTrue();
+    }
+
+    private BlocklistLearner learner(RequestBlocklist blocklist) {
+        return new BlocklistLearner(blocklist, new ObjectMapper(), dir.resolve("learned.json").toString());
+    }
+
+    private static void visit(BlocklistLearner learner, String pageUrl, String thirdPartyUrl) {
+        FakeCdp cdp = new FakeCdp();
+        learner.observe(cdp, pageUrl, Set.of());
+        cdp.load(thirdPartyUrl, 1000);
+    }
+
+    // Trials are only picked on a sample of pages, so keep asking
+    private static Set<String> trialHosts(BlocklistLearner learner) {
+        for (int i = 0; i < 1000; i++) {
+            Set<String> trial = learner.pickTrialHosts();
+            if (!trial.isEmpty()) return trial;
+        }
+        return Set.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> learned(BlocklistLearner learner) {
+        return (Set<String>) learner.getLearnerStatistics().get("learned");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> topHosts(BlocklistLearner learner) {
+        return (Map<String, Map<String, Object>>) learner.getLearnerStatistics().get("topHosts");
+    }
+
+    private static ScrapeResult result(String content) {
+        return new ScrapeResult(true, content, "https://news.example.com/", null);
+    }
+
+    /**
+     * Replays network events to the learner's listeners.
+     */
+    private static class FakeCdp implements CDPSession {
+        private final Map<String, List<Consumer<JsonObject>>> listeners = new HashMap<>();
+        private int nextId;
+
+        void load(String url, long bytes) {
+            String id = String.valueOf(++nextId);
+            JsonObject request = new JsonObject();
+            request.addProperty("url", url);
+            JsonObject sent = new JsonObject();
+            sent.addProperty("requestId", id);
+            sent.addProperty("type", "Script");
+            sent.addProperty("timestamp", 1.0);
+            sent.add("request", request);
+            emit("Network.requestWillBeSent", sent);
+
+            JsonObject finished = new JsonObject();
+            finished.addProperty("requestId", id);
+            finished.addProperty("timestamp", 1.05);
+            finished.addProperty("encodedDataLength", bytes);
+            emit("Network.loadingFinished", finished);
+        }
+
+        private void emit(String event, JsonObject params) {
+            listeners.getOrDefault(event, List.of()).forEach(listener -> listener.accept(params));
+        }
+
+        @Override
+        public void on(String event, Consumer<JsonObject> handler) {
+            listeners.computeIfAbsent(event, name -> new ArrayList<>()).add(handler);
+        }
+
+        @Override
+        public void off(String event, Consumer<JsonObject> handler) {
+            listeners.getOrDefault(event, new ArrayList<>()).remove(handler);
+        }
+
+        @Override
+        public JsonObject send(String method, JsonObject args) {
+            return new JsonObject();
+        }
+
+        @Override
+        public void detach() {
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.webScraper.Configs.CompressedCache;
+import com.mcp.webScraper.entity.ScrapeResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_CONTENT_LENGTH;
+
+/**
+ * Pages held within the same byte budget as plain UTF-16 Strings vs compressed cache entries.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CompressedCacheBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressedCacheBenchmarkTests.class);
+
+    private static final long BUDGET_BYTES = 8L * 1024 * 1024;
+    private static final int PAGES = 20_000;
+
+    @Test
+    void compressedCacheHoldsMorePages() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        CompressedCache cache = new CompressedCache("pages", BUDGET_BYTES, Duration.ofHours(1), objectMapper,
+                objectMapper.constructType(ScrapeResult.class));
+
+        Random random = new Random(42);
+        long stringBytes = 0;
+        for (int i = 0; i < PAGES; i++) {
+            String url = "https://example.com/articles/" + i;
+            String content = buildPage(random, MAX_CONTENT_LENGTH);
+
+            // String header + LATIN1 or UTF-16 array + ScrapeResult fields, as previously held on-heap
+            stringBytes += bytesPerChar(content) * content.length() + url.length() + 120;
+            cache.put(url, new ScrapeResult(true, content, url, null));
+        }
+        ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache()).cleanUp();
+
+        long plainCapacity = BUDGET_BYTES * PAGES / stringBytes;
+        Map<String, Object> stats = cache.getCacheStatistics();
+        long compressedCapacity = (long) stats.get("entries");
+        log.info("{} MB budget: {} pages as Strings, {} pages compressed ({}x), ratio {}",
+                BUDGET_BYTES >> 20, plainCapacity, compressedCapacity,
+                Math.round(compressedCapacity * 10.0 / plainCapacity) / 10.0, stats.get("compressionRatio"));
+    }
+
+    // Compact strings keep one byte per char only when every char fits in LATIN1
+    private static long bytesPerChar(String text) {
+        return text.chars().allMatch(c -> c < 256) ? 1 : 2;
+    }
+
+    // Word salad with a natural-language sized vocabulary and word frequencies,
+    // with the typographic punctuation most web pages contain
+    private static String buildPage(Random random, int length) {
+        String[] separators = {" ", " ", " ", " ", " ", " ", " ", " ", " ", ". ", ", ", " \u2014 ", "\u2019s "};
+        StringBuilder page = new StringBuilder(length + 16);
+        while (page.length() < length) {
+            int rank = (int) Math.min(5000, Math.floor(Math.exp(random.nextDouble() * Math.log(5000))));
+            page.append(word(rank)).append(separators[random.nextInt(separators.length)]);
+        }
+        return page.substring(0, length);
+    }
+
+    private static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        int value = rank * 7919;
+        do {
+            word.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return word.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.webScraper.Configs.CompressedCache;
+import com.mcp.webScraper.Configs.OffHeapContentStore;
+import com.mcp.webScraper.entity.ScrapeResult;
+import com.mcp.webScraper.entity.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_CONTENT_LENGTH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class CompressedCacheTests {
+
+    private static final long SEARCH_MS = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void valuesRoundTrip() {
+        CompressedCache cache = pageCache(1024 * 1024, null);
+        ScrapeResult page = page(new Random(1), 1);
+        page.setEtag("\"abc\"");
+        cache.put(page.getUrl(), page);
+        cache.put("small", new ScrapeResult(false, null, "small", "timeout"));
+
+        ScrapeResult hit = cache.get(page.getUrl(), ScrapeResult.class);
+        assertThat(hit.getContent()).isEqualTo(page.getContent());
+        assertThat(hit.getEtag()).isEqualTo("\"abc\"");
+        assertThat(cache.get("small", ScrapeResult.class).getError()).isEqualTo("timeout");
+        assertThat((double) cache.getCacheStatistics().get("compressionRatio")).isGreaterThan(1.0);
+
+        cache.evict(page.getUrl());
+        assertThat(cache.get(page.getUrl())).isNull();
+    }
+
+    @Test
+    void cacheIsBoundedByStoredBytes() {
+        long maxBytes = 256 * 1024;
+        CompressedCache cache = pageCache(maxBytes, null);
+        Random random = new Random(2);
+        for (int i = 0; i < 500; i++) {
+            cache.put(url(i), page(random, i));
+        }
+        ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache()).cleanUp();
+
+        Map<String, Object> stats = cache.getCacheStatistics();
+        assertThat((long) stats.get("weightedBytes")).isLessThanOrEqualTo(maxBytes);
+        assertThat((long) stats.get("evictions")).isPositive();
+        assertThat((long) stats.get("entries")).isLessThan(500);
+    }
+
+    @Test
+    void evictedOffHeapSlotsBecomeMisses() {
+        try (OffHeapContentStore store = new OffHeapContentStore(1024 * 1024)) {
+            CompressedCache cache = pageCache(256L * 1024 * 1024, store);
+            Random random = new Random(7);
+            for (int i = 0; i < 2_000; i++) {
+                cache.put(url(i), page(random, i));
+            }
+
+            // The oldest pages were evicted from the single slab, the newest read back intact
+            assertThat(cache.get(url(0), ScrapeResult.class)).isNull();
+            assertThat(cache.get(url(1_999), ScrapeResult.class).getContent()).startsWith("page 1999 ");
+            assertThat((long) store.getStoreStatistics().get("evicted")).isPositive();
+        }
+    }
+
+    @Test
+    void concurrentLoadsEvictingEachOtherDoNotDeadlock() {
+        try (OffHeapContentStore store = new OffHeapContentStore(1024 * 1024)) {
+            CompressedCache cache = pageCache(256L * 1024 * 1024, store);
+            // Large pages, so the single slab holds a few of them and nearly every load evicts another key
+            Random random = new Random(11);
+            List<ScrapeResult> pages = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                StringBuilder content = new StringBuilder("page ").append(i).append(' ');
+                while (content.length() < 100_000) {
+                    content.append(Integer.toString(random.nextInt(50_000), 36)).append(' ');
+                }
+                pages.add(new ScrapeResult(true, content.toString(), url(i), null));
+            }
+
+            // Each load places its value off-heap inside the cache's compute for its own key
+            assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+                List<Thread> loaders = new ArrayList<>();
+                for (int t = 0; t < 16; t++) {
+                    Random order = new Random(t);
+                    loaders.add(Thread.ofPlatform().start(() -> {
+                        for (int n = 0; n < 200; n++) {
+                            ScrapeResult page = pages.get(order.nextInt(pages.size()));
+                            assertThat(cache.get(page.getUrl(), () -> page).getUrl()).isEqualTo(page.getUrl());
+                        }
+                    }));
+                }
+                for (Thread loader : loaders) {
+                    loader.join();
+                }
+            });
+            assertThat((long) store.getStoreStatistics().get("evicted")).isPositive();
+        }
+    }
+
+    @Test
+    void staleKeyIsServedWhileOneRefreshRuns() throws Exception {
+        CompressedCache cache = searchCache();
+        AtomicInteger searches = new AtomicInteger();
+        cache.get("java_5", () -> search(searches, true));
+
+        // Past the fresh part of its lifetime, every caller gets the stale list and one refresh starts
+        Thread.sleep(150);
+        List<CompletableFuture<List<?>>> callers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> cache.get("java_5", () -> search(searches, true))));
+        }
+        CompletableFuture.allOf(callers.toArray(CompletableFuture[]::new)).join();
+
+        Thread.sleep(SEARCH_MS * 3);
+        assertThat(searches.get()).isEqualTo(2);
+        assertThat(cache.getCacheStatistics().get("staleHits")).isEqualTo(20L);
+        assertThat(cache.getCacheStatistics().get("refreshes")).isEqualTo(1L);
+    }
+
+    @Test
+    void failuresAreCachedBrieflyAndNeverReplaceAStaleValue() throws Exception {
+        CompressedCache cache = searchCache();
+        AtomicInteger searches = new AtomicInteger();
+
+        cache.get("python_5", () -> search(searches, false));
+        cache.get("python_5", () -> search(searches, false));
+        assertThat(searches.get()).isEqualTo(1);
+
+        Thread.sleep(250);
+        List<?> results = cache.get("python_5", () -> search(searches, true));
+        assertThat(searches.get()).isEqualTo(2);
+        assertThat(((SearchResult) results.getFirst()).isSuccess()).isTrue();
+
+        // A failed background refresh keeps the stale success
+        Thread.sleep(150);
+        cache.get("python_5", () -> search(searches, false));
+        Thread.sleep(SEARCH_MS * 3);
+        List<?> stale = cache.get("python_5", List.class);
+        assertThat(((SearchResult) stale.getFirst()).isSuccess()).isTrue();
+        assertThat(cache.getCacheStatistics().get("refreshFailures")).isEqualTo(1L);
+    }
+
+    private CompressedCache pageCache(long maxBytes, OffHeapContentStore store) {
+        return new CompressedCache("pages", maxBytes, Duration.ofHours(1), objectMapper,
+                objectMapper.constructType(ScrapeResult.class), store);
+    }
+
+    private CompressedCache searchCache() {
+        CompressedCache cache = new CompressedCache("searchResults", 1024 * 1024, Duration.ofMinutes(30), objectMapper,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, SearchResult.class));
+        cache.setExpiryPolicy((key, value) -> ((SearchResult) ((List<?>) value).getFirst()).isSuccess()
+                ? new CompressedCache.Lifetime(Duration.ofMillis(100), Duration.ofMinutes(1))
+                : CompressedCache.Lifetime.negative(Duration.ofMillis(200)));
+        return cache;
+    }
+
+    static List<SearchResult> search(AtomicInteger searches, boolean success) throws InterruptedException {
+        searches.incrementAndGet();
+        Thread.sleep(SEARCH_MS);
+        return List.of(success
+                ? new SearchResult(true, "https://example.com", "snippet", null, null)
+                : new SearchResult(false, "error", null, "unavailable", "unavailable"));
+    }
+
+    static String url(int i) {
+        return "https://example.com/articles/" + i;
+    }
+
+    static ScrapeResult page(Random random, int i) {
+        StringBuilder content = new StringBuilder(MAX_CONTENT_LENGTH).append("page ").append(i).append(' ');
+        while (content.length() < MAX_CONTENT_LENGTH) {
+            content.append(Integer.toString(random.nextInt(50_000), 36)).append(' ');
+        }
+        return new ScrapeResult(true, content.toString(), url(i), null);
+    }
+}
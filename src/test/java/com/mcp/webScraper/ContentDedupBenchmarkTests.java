@@ -0,0 +1,76 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.ContentDeduplicator;
+import com.mcp.webScraper.utils.SimHash;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.mcp.webScraper.ContentDeduplicatorTests.article;
+import static com.mcp.webScraper.ContentDeduplicatorTests.syndicated;
+
+/**
+ * Page bodies shared across syndicated copies of articles, separation of unrelated pages, and fingerprint cost.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ContentDedupBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentDedupBenchmarkTests.class);
+
+    private static final int ARTICLES = 500;
+    private static final int COPIES = 4;
+
+    @Test
+    void syndicatedCopiesShareOneBody() {
+        ContentDeduplicator deduplicator = new ContentDeduplicator(6, 500, 50_000);
+        Random random = new Random(42);
+
+        long totalChars = 0;
+        long fingerprintNs = 0;
+        int nearSame = 0;
+        for (int i = 0; i < ARTICLES; i++) {
+            String article = article(random, 800);
+            long original = 0;
+            for (int copy = 0; copy < COPIES; copy++) {
+                String page = copy == 0 ? article : syndicated(random, article);
+                totalChars += page.length();
+
+                long start = System.nanoTime();
+                long fingerprint = SimHash.fingerprint(page);
+                fingerprintNs += System.nanoTime() - start;
+
+                long shared = deduplicator.share(fingerprint, page.length());
+                if (copy == 0) original = shared;
+                else if (shared == original) nearSame++;
+            }
+        }
+
+        long sharedChars = (long) deduplicator.getDedupStatistics().get("sharedChars");
+        log.info("{} pages, {} chars: {} of {} copies shared the original's body, {} chars not stored again ({}%), {} ns per fingerprint, {}",
+                ARTICLES * COPIES, totalChars, nearSame, ARTICLES * (COPIES - 1), sharedChars, sharedChars * 100 / totalChars,
+                fingerprintNs / (ARTICLES * COPIES), deduplicator.getDedupStatistics());
+    }
+
+    @Test
+    void unrelatedPagesAreKeptApart() {
+        Random random = new Random(7);
+        List<Long> fingerprints = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            fingerprints.add(SimHash.fingerprint(article(random, 800)));
+        }
+
+        int minDistance = 64;
+        for (int i = 0; i < fingerprints.size(); i++) {
+            for (int j = i + 1; j < fingerprints.size(); j++) {
+                minDistance = Math.min(minDistance, SimHash.distance(fingerprints.get(i), fingerprints.get(j)));
+            }
+        }
+        log.info("Closest of {} unrelated pages: {} bits apart", fingerprints.size(), minDistance);
+    }
+}
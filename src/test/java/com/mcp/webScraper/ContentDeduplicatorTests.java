@@ -0,0 +1,113 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.ContentDeduplicator;
+import com.mcp.webScraper.entity.SearchResult;
+import com.mcp.webScraper.utils.SimHash;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentDeduplicatorTests {
+
+    private static final int VOCABULARY = 5_000;
+
+    @Test
+    void nearDuplicatesAreCloseAndUnrelatedPagesAreFar() {
+        Random random = new Random(7);
+        String article = article(random, 800);
+
+        assertThat(SimHash.fingerprint(article)).isEqualTo(SimHash.fingerprint(article.toUpperCase()));
+        assertThat(SimHash.distance(SimHash.fingerprint(article), SimHash.fingerprint(syndicated(random, article))))
+                .isLessThanOrEqualTo(6);
+        for (int i = 0; i < 20; i++) {
+            assertThat(SimHash.distance(SimHash.fingerprint(article), SimHash.fingerprint(article(random, 800))))
+                    .isGreaterThan(6);
+        }
+        assertThat(SimHash.toHex(0xabcL)).isEqualTo("0000000000000abc");
+    }
+
+    @Test
+    void nearDuplicateSharesTheKnownFingerprint() {
+        ContentDeduplicator deduplicator = new ContentDeduplicator(6, 500, 1_000);
+        long original = SimHash.fingerprint("x");
+        long near = original ^ 0b100101; // 3 bits apart
+        long far = ~original;
+
+        assertThat(deduplicator.share(original, 1_000)).isEqualTo(original);
+        assertThat(deduplicator.share(near, 1_000)).isEqualTo(original);
+        assertThat(deduplicator.share(far, 1_000)).isEqualTo(far);
+        assertThat(deduplicator.getDedupStatistics().get("sharedPages")).isEqualTo(1L);
+
+        // A forgotten body is no longer shared
+        deduplicator.forget(original);
+        assertThat(deduplicator.share(near, 1_000)).isEqualTo(near);
+    }
+
+    @Test
+    void maxDistanceIsClampedToWhatTheIndexFinds() {
+        ContentDeduplicator deduplicator = new ContentDeduplicator(20, 500, 1_000);
+        assertThat(deduplicator.getDedupStatistics().get("maxDistance")).isEqualTo(7);
+
+        long fingerprint = 0x0123456789abcdefL;
+        deduplicator.share(fingerprint, 1_000);
+        assertThat(deduplicator.share(fingerprint ^ 0x7fL, 1_000)).isEqualTo(fingerprint);
+        assertThat(deduplicator.share(fingerprint ^ 0xffL, 1_000)).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    void fingerprintsAreBounded() {
+        ContentDeduplicator deduplicator = new ContentDeduplicator(3, 500, 10);
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            deduplicator.share(random.nextLong(), 1_000);
+        }
+        assertThat(deduplicator.getDedupStatistics().get("fingerprints")).isEqualTo(10);
+    }
+
+    @Test
+    void nearDuplicateResultsAreCollapsed() {
+        ContentDeduplicator deduplicator = new ContentDeduplicator(6, 500, 1_000);
+        Random random = new Random(11);
+        String article = article(random, 800);
+
+        List<SearchResult> results = new ArrayList<>();
+        results.add(result("https://news.example.com/story", article));
+        results.add(result("https://other.example.org/page", article(random, 800)));
+        results.add(result("https://mirror.example.net/story", syndicated(random, article)));
+        results.add(result("https://short.example.com/", "too short to fingerprint"));
+
+        List<SearchResult> kept = deduplicator.collapse(results);
+        assertThat(kept).extracting(SearchResult::getSource)
+                .containsExactly("https://news.example.com/story", "https://other.example.org/page", "https://short.example.com/");
+        assertThat(kept.getFirst().getDuplicateSources()).containsExactly("https://mirror.example.net/story");
+        assertThat(deduplicator.getDedupStatistics().get("collapsedResults")).isEqualTo(1L);
+    }
+
+    private static SearchResult result(String source, String content) {
+        SearchResult result = new SearchResult();
+        result.setSource(source);
+        result.setContent(content);
+        return result;
+    }
+
+    static String article(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append('w').append(Integer.toString(random.nextInt(VOCABULARY), 36));
+            text.append(i % 15 == 14 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    // Same article with a site header, a byline and a share footer
+    static String syndicated(Random random, String article) {
+        return "Home News Tech " + article.substring(0, article.length() / 2)
+                + " By staff writer " + random.nextInt(100) + " "
+                + article.substring(article.length() / 2)
+                + " Share this article " + random.nextInt(1_000);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.ContentProcessor;
+import com.mcp.webScraper.Workers.PageCapture;
+import com.mcp.webScraper.Workers.PdfTextExtractor;
+import com.mcp.webScraper.entity.ScrapeResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentProcessorTests {
+
+    @TempDir
+    Path tempDir;
+
+    private static PdfTextExtractor pdfTextExtractor;
+    private static ContentProcessor processor;
+
+    @BeforeAll
+    static void startPools() {
+        pdfTextExtractor = new PdfTextExtractor(2);
+        processor = new ContentProcessor(2, pdfTextExtractor);
+    }
+
+    @AfterAll
+    static void stopPools() {
+        processor.cleanup();
+        pdfTextExtractor.cleanup();
+    }
+
+    @Test
+    void textIsNormalizedAndKeepsItsValidators() {
+        PageCapture capture = PageCapture.text("https://example.com/notes.txt", 12, "  one   two\nthree four  ")
+                .withValidators("\"v1\"", "Tue, 01 Sep 2026 00:00:00 GMT");
+
+        ScrapeResult result = processor.process(capture);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getContent()).isEqualTo("one two...");
+        assertThat(result.getEtag()).isEqualTo("\"v1\"");
+        assertThat(result.getLastModified()).isEqualTo("Tue, 01 Sep 2026 00:00:00 GMT");
+    }
+
+    @Test
+    void htmlGoesThroughTheReadabilityExtractor() {
+        String paragraph = "The committee met on Tuesday, reviewed the budget, and agreed on the plan for next year.";
+        String html = "<html><body><nav><a href=\"/\">Home</a></nav><article><p>" + paragraph + "</p></article></body></html>";
+
+        ScrapeResult result = processor.process(PageCapture.html("https://example.com/", 5500, html));
+        assertThat(result.getContent()).isEqualTo(paragraph);
+    }
+
+    @Test
+    void pdfIsExtractedAndItsTempFileDeleted() throws IOException {
+        Path pdf = tempDir.resolve("report.pdf");
+        PdfTextExtractorTests.writeDocument(pdf.toFile(), 2, 3);
+
+        ScrapeResult result = processor.process(PageCapture.pdf("https://example.com/report.pdf", 5500, pdf));
+        assertThat(result.getContent()).startsWith("Page 0 line 0 ");
+        assertThat(pdf).doesNotExist();
+    }
+
+    @Test
+    void failuresKeepTheirReasonAndCleanUp() throws IOException {
+        assertThat(processor.process(PageCapture.failed("https://example.com/", "timeout")))
+                .extracting(ScrapeResult::isSuccess, ScrapeResult::getError)
+                .containsExactly(false, "timeout");
+
+        Path broken = Files.writeString(tempDir.resolve("broken.pdf"), "not a pdf");
+        ScrapeResult result = processor.process(PageCapture.pdf("https://example.com/broken.pdf", 5500, broken));
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getError()).isEqualTo("PDF site extraction failed!!");
+        assertThat(broken).doesNotExist();
+    }
+}
@@ -0,0 +1,112 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.CONTENT_STABLE_SCRIPT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the content-stability wait in Node against a stubbed page whose text grows on a schedule.
+ * Skipped where Node is not installed.
+ */
+class ContentStableScriptTests {
+
+    // Text length of the stubbed main content and body over time: [after ms, length] steps, null for no body
+    private static final String HARNESS = """
+            const steps = %s;
+            const bodySteps = %s;
+            const started = Date.now();
+            let stopped = false;
+            const lengthAt = (schedule) => {
+                const elapsed = Date.now() - started;
+                let length = 0;
+                for (const [after, value] of schedule) if (elapsed >= after) length = value;
+                return length;
+            };
+            globalThis.window = { stop: () => { stopped = true; } };
+            globalThis.document = {
+                get body() {
+                    return bodySteps ? { textContent: { length: lengthAt(bodySteps) } } : null;
+                },
+                querySelector: () => ({ textContent: { length: lengthAt(steps) } })
+            };
+            const wait = %s;
+            wait({ selector: 'main', budget: %d, stableMs: 100, intervalMs: 10, maxMs: 1000 })
+                .then(length => console.log(JSON.stringify({ length, stopped, elapsed: Date.now() - started })));
+            """;
+
+    @TempDir
+    static Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void requireNode() {
+        assumeTrue(nodeAvailable(), "node is not installed");
+    }
+
+    @Test
+    void resolvesOnceContentStopsGrowing() throws Exception {
+        JsonNode result = run("[[0, 100], [50, 400], [150, 900]]", "null", 100_000);
+        assertThat(result.get("length").asInt()).isEqualTo(900);
+        assertThat(result.get("elapsed").asLong()).isBetween(240L, 900L);
+        assertThat(result.get("stopped").asBoolean()).isTrue();
+    }
+
+    @Test
+    void resolvesAsSoonAsTheBudgetIsFilled() throws Exception {
+        JsonNode result = run("[[0, 100], [30, 6000], [60, 7000]]", "null", 5500);
+        assertThat(result.get("length").asInt()).isEqualTo(6000);
+        assertThat(result.get("elapsed").asLong()).isLessThan(100L);
+    }
+
+    @Test
+    void givesUpOnPagesThatNeverShowContent() throws Exception {
+        JsonNode result = run("[[0, 0]]", "null", 5500);
+        assertThat(result.get("length").asInt()).isZero();
+        assertThat(result.get("elapsed").asLong()).isGreaterThanOrEqualTo(1000L);
+        assertThat(result.get("stopped").asBoolean()).isTrue();
+    }
+
+    @Test
+    void fallsBackToTheBodyWhenTheMatchedElementIsEmpty() throws Exception {
+        JsonNode result = run("[[0, 0]]", "[[0, 300], [50, 800]]", 100_000);
+        assertThat(result.get("length").asInt()).isEqualTo(800);
+        assertThat(result.get("elapsed").asLong()).isBetween(140L, 900L);
+        assertThat(result.get("stopped").asBoolean()).isTrue();
+    }
+
+    private JsonNode run(String steps, String bodySteps, int budget) throws Exception {
+        Path script = Files.createTempFile(tempDir, "wait-", ".js");
+        Files.writeString(script, HARNESS.formatted(steps, bodySteps, CONTENT_STABLE_SCRIPT.strip(), budget));
+
+        Process node = new ProcessBuilder("node", script.toString()).redirectErrorStream(true).start();
+        assertThat(node.waitFor(10, TimeUnit.SECONDS)).isTrue();
+        String output = new String(node.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(node.exitValue()).as(output).isZero();
+        return objectMapper.readTree(output);
+    }
+
+    private static boolean nodeAvailable() {
+        try {
+            Process node = new ProcessBuilder("node", "--version").redirectErrorStream(true).start();
+            return node.waitFor(5, TimeUnit.SECONDS) && node.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.webScraper.Configs.CompressedCache;
+import com.mcp.webScraper.Configs.DiskCacheStore;
+import com.mcp.webScraper.entity.ScrapeResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+
+import static com.mcp.webScraper.CompressedCacheTests.page;
+import static com.mcp.webScraper.CompressedCacheTests.url;
+
+/**
+ * Restart of the scraped-pages cache with its disk tier: time to come back warm and pages read back.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class DiskCacheBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(DiskCacheBenchmarkTests.class);
+
+    private static final int PAGES = 20_000;
+    private static final int BATCH = 5_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartComesBackWarm() throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Random random = new Random(42);
+
+        Object written;
+        Object dropped;
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30)) {
+            CompressedCache cache = newCache(store, objectMapper);
+            for (int i = 0; i < PAGES; i++) {
+                cache.put(url(i), page(random, i));
+                // More pages than the write queue holds, so let the writer catch up between batches
+                if ((i + 1) % BATCH == 0) awaitWrites(store);
+            }
+            cache.evict(url(0));
+            awaitWrites(store);
+            written = store.getStoreStatistics().get("writes");
+            dropped = store.getStoreStatistics().get("dropped");
+        }
+
+        long start = System.nanoTime();
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30)) {
+            long reopenMs = (System.nanoTime() - start) / 1_000_000;
+            CompressedCache cache = newCache(store, objectMapper);
+
+            int hits = 0;
+            for (int i = 0; i < PAGES; i++) {
+                if (cache.get(url(i), ScrapeResult.class) != null) hits++;
+            }
+            log.info("{} pages: {} written, {} dropped, reopened in {} ms, {} read back ({})",
+                    PAGES, written, dropped, reopenMs, hits, store.getStoreStatistics());
+        }
+    }
+
+    private static void awaitWrites(DiskCacheStore store) throws InterruptedException {
+        while ((int) store.getStoreStatistics().get("queued") > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static CompressedCache newCache(DiskCacheStore store, ObjectMapper objectMapper) {
+        // A small heap tier, so most reads after a restart come from disk
+        return new CompressedCache("pages", 1024 * 1024, Duration.ofHours(1), objectMapper,
+                objectMapper.constructType(ScrapeResult.class), null, store);
+    }
+}
@@ -0,0 +1,135 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.webScraper.Configs.CompressedCache;
+import com.mcp.webScraper.Configs.DiskCacheStore;
+import com.mcp.webScraper.entity.ScrapeResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.mcp.webScraper.CompressedCacheTests.page;
+import static com.mcp.webScraper.CompressedCacheTests.url;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskCacheStoreTests {
+
+    private static final long SEGMENT_BYTES = 64 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesSurviveARestart() throws IOException {
+        Random random = new Random(42);
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30)) {
+            CompressedCache cache = newCache(store);
+            for (int i = 0; i < 200; i++) {
+                cache.put(url(i), page(random, i));
+            }
+            cache.evict(url(0));
+        }
+
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30)) {
+            CompressedCache cache = newCache(store);
+            assertThat(store.getStoreStatistics().get("entries")).isEqualTo(199);
+            assertThat(cache.get(url(0), ScrapeResult.class)).isNull();
+            assertThat(cache.get(url(199), ScrapeResult.class).getContent()).startsWith("page 199 ");
+        }
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        Random random = new Random(7);
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30)) {
+            CompressedCache cache = newCache(store);
+            for (int i = 0; i < 100; i++) {
+                cache.put(url(i), page(random, i));
+            }
+        }
+
+        // A crash mid-write leaves half a record behind
+        Path segment = segments().getLast();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 100);
+        }
+
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30)) {
+            CompressedCache cache = newCache(store);
+            assertThat(cache.get(url(99), ScrapeResult.class)).isNull();
+            assertThat(cache.get(url(98), ScrapeResult.class)).isNotNull();
+            assertThat((long) store.getStoreStatistics().get("corrupt")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void overwrittenSegmentsAreCompacted() throws IOException {
+        Random random = new Random(3);
+
+        // Enough rewrites of the same 20 pages to roll over many small segments
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30, SEGMENT_BYTES)) {
+            CompressedCache cache = newCache(store);
+            for (int i = 0; i < 2_000; i++) {
+                cache.put(url(i % 20), page(random, i));
+            }
+        }
+
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30, SEGMENT_BYTES)) {
+            assertThat(store.getStoreStatistics().get("entries")).isEqualTo(20);
+            assertThat(segments().size()).isLessThan(20);
+        }
+    }
+
+    @Test
+    void evictedKeyStaysGoneAfterCompaction() throws IOException {
+        Random random = new Random(5);
+
+        DiskCacheStore writer = new DiskCacheStore("pages", directory, 1L << 30, SEGMENT_BYTES);
+        try (writer) {
+            CompressedCache cache = newCache(writer);
+            // Pages that are never rewritten keep the oldest segments live, so they are not compacted
+            for (int i = 0; i < 50; i++) {
+                cache.put(url(i), page(random, i));
+            }
+            // The tombstone lands among short-lived pages, whose segments are compacted
+            for (int i = 0; i < 100; i++) {
+                cache.put(url(100 + i % 5), page(random, i));
+            }
+            cache.evict(url(0));
+            for (int i = 0; i < 500; i++) {
+                cache.put(url(100 + i % 5), page(random, i));
+            }
+        }
+        assertThat((long) writer.getStoreStatistics().get("compactions")).isPositive();
+
+        try (DiskCacheStore store = new DiskCacheStore("pages", directory, 1L << 30, SEGMENT_BYTES)) {
+            CompressedCache cache = newCache(store);
+            assertThat(cache.get(url(0), ScrapeResult.class)).isNull();
+            assertThat(cache.get(url(1), ScrapeResult.class)).isNotNull();
+            assertThat(store.getStoreStatistics().get("entries")).isEqualTo(49 + 5);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private CompressedCache newCache(DiskCacheStore store) {
+        // A small heap tier, so most reads after a restart come from disk
+        return new CompressedCache("pages", 1024 * 1024, Duration.ofHours(1), objectMapper,
+                objectMapper.constructType(ScrapeResult.class), null, store);
+    }
+}
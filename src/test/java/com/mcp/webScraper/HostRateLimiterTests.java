@@ -0,0 +1,111 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.HostRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.HOST_DEFAULT_BACKOFF_SECONDS;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.HOST_MAX_BACKOFF_SECONDS;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.HOST_MAX_CONCURRENCY;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.HOST_MIN_INTERVAL_MS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HostRateLimiterTests {
+
+    @Test
+    void requestStartsAreSpacedPerHost() {
+        HostRateLimiter limiter = new HostRateLimiter();
+
+        long start = System.nanoTime();
+        limiter.acquire("https://a.example.com/1").close();
+        limiter.acquire("https://a.example.com/2").close();
+        long sameHostMs = (System.nanoTime() - start) / 1_000_000;
+        assertThat(sameHostMs).isGreaterThanOrEqualTo(HOST_MIN_INTERVAL_MS - 10);
+
+        // Another host has its own schedule
+        start = System.nanoTime();
+        limiter.acquire("https://b.example.com/1").close();
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(HOST_MIN_INTERVAL_MS);
+    }
+
+    @Test
+    void closingAPermitFreesItsSlotOnce() throws Exception {
+        HostRateLimiter limiter = new HostRateLimiter();
+        List<HostRateLimiter.Permit> held = new ArrayList<>();
+        for (int i = 0; i < HOST_MAX_CONCURRENCY; i++) {
+            held.add(limiter.acquire("https://busy.example.com/" + i));
+        }
+        assertThat(held).allMatch(HostRateLimiter.Permit::isGranted);
+        assertThat(host(limiter, "busy.example.com").get("active")).isEqualTo((long) HOST_MAX_CONCURRENCY);
+
+        CompletableFuture<HostRateLimiter.Permit> waiting =
+                CompletableFuture.supplyAsync(() -> limiter.acquire("https://busy.example.com/next"));
+        Thread.sleep(100);
+        assertThat(waiting).isNotDone();
+
+        HostRateLimiter.Permit first = held.getFirst();
+        first.close();
+        first.close();
+        HostRateLimiter.Permit next = waiting.get(5, TimeUnit.SECONDS);
+        assertThat(next.isGranted()).isTrue();
+        assertThat(host(limiter, "busy.example.com").get("active")).isEqualTo((long) HOST_MAX_CONCURRENCY);
+
+        next.close();
+        held.forEach(HostRateLimiter.Permit::close);
+        assertThat(host(limiter, "busy.example.com").get("active")).isZero();
+    }
+
+    @Test
+    void throttledHostIsRejectedForRetryAfter() {
+        HostRateLimiter limiter = new HostRateLimiter();
+        limiter.recordThrottle("https://slow.example.com/a", 200, "120");
+        limiter.recordThrottle("https://slow.example.com/a", 404, "120");
+        assertThat(limiter.acquire("https://slow.example.com/b").isGranted()).isTrue();
+
+        limiter.recordThrottle("https://slow.example.com/a", 429, "120");
+        HostRateLimiter.Permit permit = limiter.acquire("https://slow.example.com/b");
+        assertThat(permit.isGranted()).isFalse();
+        assertThat(permit.getReason()).contains("retry after 120s");
+        assertThat(backoffSeconds(limiter, "slow.example.com")).isBetween(118L, 120L);
+
+        // A shorter Retry-After does not cut an existing backoff short
+        limiter.recordThrottle("https://slow.example.com/a", 503, "5");
+        assertThat(backoffSeconds(limiter, "slow.example.com")).isBetween(118L, 120L);
+    }
+
+    @Test
+    void retryAfterFormsAreParsedAndCapped() {
+        HostRateLimiter limiter = new HostRateLimiter();
+
+        limiter.recordThrottle("https://capped.example.com/", 429, "86400");
+        assertThat(backoffSeconds(limiter, "capped.example.com")).isBetween(HOST_MAX_BACKOFF_SECONDS - 2, HOST_MAX_BACKOFF_SECONDS);
+
+        String date = ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(90).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        limiter.recordThrottle("https://dated.example.com/", 503, date);
+        assertThat(backoffSeconds(limiter, "dated.example.com")).isBetween(87L, 90L);
+
+        limiter.recordThrottle("https://garbled.example.com/", 429, "soon");
+        limiter.recordThrottle("https://missing.example.com/", 429, null);
+        assertThat(backoffSeconds(limiter, "garbled.example.com"))
+                .isBetween(HOST_DEFAULT_BACKOFF_SECONDS - 2, HOST_DEFAULT_BACKOFF_SECONDS);
+        assertThat(backoffSeconds(limiter, "missing.example.com"))
+                .isBetween(HOST_DEFAULT_BACKOFF_SECONDS - 2, HOST_DEFAULT_BACKOFF_SECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> host(HostRateLimiter limiter, String host) {
+        return ((Map<String, Map<String, Long>>) limiter.getHostStatistics().get("hosts")).get(host);
+    }
+
+    private static long backoffSeconds(HostRateLimiter limiter, String host) {
+        return host(limiter, host).get("backoffRemainingMs") / 1000;
+    }
+}
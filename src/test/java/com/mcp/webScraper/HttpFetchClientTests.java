@@ -0,0 +1,115 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.HttpFetchClient;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpFetchClientTests {
+
+    private static final AtomicInteger requests = new AtomicInteger();
+
+    private static HttpServer server;
+    private static String base;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/report.pdf", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/pdf");
+            exchange.getResponseHeaders().add("Content-Length", "12345");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        // Rejects HEAD, answers a ranged GET with the first byte
+        server.createContext("/no-head", exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=\"ISO-8859-1\"");
+            exchange.getResponseHeaders().add("Content-Range", "bytes 0-0/4096");
+            exchange.sendResponseHeaders(206, 1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write('x');
+            }
+        });
+        server.createContext("/article", exchange -> {
+            requests.incrementAndGet();
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            String since = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+            if ("\"v2\"".equals(etag) || "Tue, 01 Sep 2026 00:00:00 GMT".equals(since)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "changed article".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v3\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void probeReadsTypeAndSizeFromHead() throws IOException {
+        HttpFetchClient.ProbeResult probe = new HttpFetchClient().probe(base + "/report.pdf");
+        assertThat(probe.getStatus()).isEqualTo(200);
+        assertThat(probe.getMimeType()).isEqualTo("application/pdf");
+        assertThat(probe.getContentLength()).isEqualTo(12345);
+    }
+
+    @Test
+    void probeFallsBackToRangedGetWhenHeadIsRejected() throws IOException {
+        HttpFetchClient.ProbeResult probe = new HttpFetchClient().probe(base + "/no-head");
+        assertThat(probe.getStatus()).isEqualTo(206);
+        assertThat(probe.getMimeType()).isEqualTo("text/plain");
+        assertThat(probe.getCharset()).isEqualTo("ISO-8859-1");
+        // The full size, not the one byte sent
+        assertThat(probe.getContentLength()).isEqualTo(4096);
+    }
+
+    @Test
+    void probeResultParsesHeaders() {
+        HttpFetchClient.ProbeResult probe = HttpFetchClient.ProbeResult.from(200, HttpHeaders.of(Map.of(
+                "content-type", List.of("Text/HTML ; Charset=utf-8"),
+                "content-range", List.of("bytes 0-0/*")), (name, value) -> true));
+        assertThat(probe.getMimeType()).isEqualTo("text/html");
+        assertThat(probe.getCharset()).isEqualTo("utf-8");
+        assertThat(probe.getContentLength()).isEqualTo(-1);
+    }
+
+    @Test
+    void notModifiedOnlyWhenAValidatorMatches() throws IOException {
+        HttpFetchClient client = new HttpFetchClient();
+        assertThat(client.isNotModified(base + "/article", "\"v2\"", null)).isTrue();
+        assertThat(client.isNotModified(base + "/article", null, "Tue, 01 Sep 2026 00:00:00 GMT")).isTrue();
+        assertThat(client.isNotModified(base + "/article", "\"v1\"", null)).isFalse();
+
+        // Nothing to revalidate with, so no request is sent
+        int before = requests.get();
+        assertThat(client.isNotModified(base + "/article", null, null)).isFalse();
+        assertThat(requests.get()).isEqualTo(before);
+    }
+}
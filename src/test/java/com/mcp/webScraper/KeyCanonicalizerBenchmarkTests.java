@@ -0,0 +1,69 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.KeyCanonicalizer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Distinct cache keys for a stream of URL variants, raw vs canonicalized, and canonicalization cost.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class KeyCanonicalizerBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(KeyCanonicalizerBenchmarkTests.class);
+
+    private static final int PAGES = 1_000;
+    private static final int REQUESTS = 20_000;
+
+    private final KeyCanonicalizer canonicalizer =
+            new KeyCanonicalizer("utm_*,fbclid,gclid,gclsrc,dclid,msclkid,yclid,igshid,mc_cid,mc_eid,_ga,_gl,_hsenc,_hsmi,mkt_tok,ref_src,spm");
+
+    @Test
+    void urlVariantKeys() {
+        Random random = new Random(42);
+        Set<String> raw = new HashSet<>();
+        Set<String> canonical = new HashSet<>();
+
+        long canonicalNs = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            String url = urlVariant(random, random.nextInt(PAGES));
+            raw.add(url);
+            long start = System.nanoTime();
+            canonical.add(canonicalizer.url(url));
+            canonicalNs += System.nanoTime() - start;
+        }
+        log.info("{} requests over {} pages: {} raw keys, {} canonical keys, {} ns per key",
+                REQUESTS, PAGES, raw.size(), canonical.size(), canonicalNs / REQUESTS);
+    }
+
+    private static String urlVariant(Random random, int page) {
+        StringBuilder url = new StringBuilder(random.nextBoolean() ? "https://" : "http://")
+                .append(random.nextBoolean() ? "News.Example.com" : "news.example.com")
+                .append("/articles/").append(page);
+        if (random.nextBoolean()) url.append('/');
+
+        String separator = "?";
+        if (page % 3 == 0) {
+            url.append("?id=").append(page);
+            separator = "&";
+        }
+        if (random.nextBoolean()) {
+            url.append(separator).append("utm_source=feed").append(random.nextInt(50)).append("&utm_medium=social");
+            separator = "&";
+        }
+        if (random.nextBoolean()) {
+            url.append(separator).append("fbclid=").append(Long.toHexString(random.nextLong()));
+        }
+        if (random.nextBoolean()) {
+            url.append("#section-").append(random.nextInt(5));
+        }
+        return url.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.KeyCanonicalizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyCanonicalizerTests {
+
+    private final KeyCanonicalizer canonicalizer = new KeyCanonicalizer("utm_*,fbclid,gclid");
+
+    @Test
+    void urlVariantsShareOneKey() {
+        String[] variants = {
+                "https://news.example.com/articles/7",
+                "http://News.Example.com/articles/7/",
+                "https://news.example.com:443/articles/7?utm_source=feed&utm_medium=social",
+                "https://news.example.com./articles/7?fbclid=abc#comments",
+                " https://news.example.com/articles/7?gclid=1&UTM_CAMPAIGN=x "
+        };
+        Set<String> canonical = new HashSet<>();
+        for (String variant : variants) {
+            canonical.add(canonicalizer.url(variant));
+        }
+        assertThat(canonical).containsExactly("https://news.example.com/articles/7");
+    }
+
+    @Test
+    void urlParametersThatSelectContentAreKept() {
+        assertThat(canonicalizer.url("https://example.com/search?q=java&page=2"))
+                .isNotEqualTo(canonicalizer.url("https://example.com/search?q=java&page=3"));
+        assertThat(canonicalizer.url("https://example.com/search?page=2&q=java"))
+                .isEqualTo("https://example.com/search?page=2&q=java")
+                .isEqualTo(canonicalizer.url("https://example.com/search?q=java&page=2"));
+        assertThat(canonicalizer.url("https://example.com:8443/")).isEqualTo("https://example.com:8443/");
+        assertThat(canonicalizer.url("not a url#frag")).isEqualTo("not a url");
+    }
+
+    @Test
+    void queryVariantsShareOneKey() {
+        String[] variants = {"What is Java?", "what is java", "  What   is JAVA ", "what is java?!", "What is Java."};
+        Set<String> canonical = new HashSet<>();
+        for (String variant : variants) {
+            canonical.add(canonicalizer.query(variant));
+        }
+        assertThat(canonical).containsExactly("what is java");
+
+        // Punctuation that changes the meaning is kept
+        assertThat(canonicalizer.query("C++ tutorial")).isNotEqualTo(canonicalizer.query("C tutorial"));
+        assertThat(canonicalizer.query("C# (tutorial)")).isEqualTo("c# tutorial");
+        assertThat(canonicalizer.query(".NET docs")).isEqualTo(".net docs");
+    }
+
+    @Test
+    void hostIsLowerCaseWithoutTrailingDot() {
+        assertThat(KeyCanonicalizer.host("https://Docs.Example.COM./x")).isEqualTo("docs.example.com");
+        assertThat(KeyCanonicalizer.host("mailto:someone")).isNull();
+        assertThat(KeyCanonicalizer.host(null)).isNull();
+    }
+}
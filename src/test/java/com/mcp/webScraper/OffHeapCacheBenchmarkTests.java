@@ -0,0 +1,72 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.webScraper.Configs.CompressedCache;
+import com.mcp.webScraper.Configs.OffHeapContentStore;
+import com.mcp.webScraper.entity.ScrapeResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.util.Random;
+
+import static com.mcp.webScraper.CompressedCacheTests.page;
+import static com.mcp.webScraper.CompressedCacheTests.url;
+
+/**
+ * Heap retained by the scraped-pages cache with page bodies on-heap vs in the off-heap store.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class OffHeapCacheBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapCacheBenchmarkTests.class);
+
+    private static final long HEAP_BUDGET_BYTES = 256L * 1024 * 1024;
+    private static final long OFF_HEAP_BYTES = 256L * 1024 * 1024;
+
+    @Test
+    void offHeapStoreKeepsBodiesOutOfTheHeap() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        for (int pages : new int[]{10_000, 40_000}) {
+            long onHeap = retainedHeap(pages, null, objectMapper);
+
+            try (OffHeapContentStore store = new OffHeapContentStore(OFF_HEAP_BYTES)) {
+                long offHeap = retainedHeap(pages, store, objectMapper);
+                log.info("{} pages: {} KB heap on-heap, {} KB heap with off-heap store ({})",
+                        pages, onHeap >> 10, offHeap >> 10, store.getStoreStatistics());
+            }
+        }
+    }
+
+    private long retainedHeap(int pages, OffHeapContentStore store, ObjectMapper objectMapper) {
+        long before = usedHeapAfterGc();
+        CompressedCache cache = newCache(store, objectMapper);
+        Random random = new Random(42);
+        for (int i = 0; i < pages; i++) {
+            cache.put(url(i), page(random, i));
+        }
+        long retained = usedHeapAfterGc() - before;
+
+        // Keep the cache reachable until measured
+        Reference.reachabilityFence(cache);
+        return retained;
+    }
+
+    private static CompressedCache newCache(OffHeapContentStore store, ObjectMapper objectMapper) {
+        return new CompressedCache("pages", HEAP_BUDGET_BYTES, Duration.ofHours(1), objectMapper,
+                objectMapper.constructType(ScrapeResult.class), store);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
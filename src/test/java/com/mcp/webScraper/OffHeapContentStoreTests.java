@@ -0,0 +1,132 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Configs.OffHeapContentStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapContentStoreTests {
+
+    private static final int SLAB_BYTES = 1024 * 1024;
+
+    @Test
+    void valuesRoundTrip() {
+        try (OffHeapContentStore store = new OffHeapContentStore(16L * SLAB_BYTES)) {
+            List<OffHeapContentStore.Slot> slots = new ArrayList<>();
+            for (int length : new int[]{1, 511, 512, 4_000, 100_000, SLAB_BYTES}) {
+                OffHeapContentStore.Slot slot = store.put("key-" + length, bytes(length));
+                assertThat(slot).as("length %d", length).isNotNull();
+                assertThat(slot.getLength()).isEqualTo(length);
+                assertThat(slot.getKey()).isEqualTo("key-" + length);
+                slots.add(slot);
+            }
+            for (OffHeapContentStore.Slot slot : slots) {
+                assertThat(store.read(slot)).isEqualTo(bytes(slot.getLength()));
+            }
+        }
+    }
+
+    @Test
+    void sizeClassBoundaries() {
+        try (OffHeapContentStore store = new OffHeapContentStore(16L * SLAB_BYTES)) {
+            // Up to the smallest chunk everything shares one class and its slab
+            store.put("a", bytes(1));
+            store.put("b", bytes(512));
+            assertThat(store.getStoreStatistics()).containsEntry("sizeClassesInUse", 1).containsEntry("slabs", 1);
+
+            // One byte more takes the next class, which gets a slab of its own
+            store.put("c", bytes(513));
+            assertThat(store.getStoreStatistics()).containsEntry("sizeClassesInUse", 2).containsEntry("slabs", 2);
+
+            // A whole slab still fits, one byte more never does
+            assertThat(store.put("d", bytes(SLAB_BYTES))).isNotNull();
+            assertThat(store.put("e", bytes(SLAB_BYTES + 1))).isNull();
+            assertThat(store.getStoreStatistics())
+                    .containsEntry("sizeClassesInUse", 3)
+                    .containsEntry("stored", 4L)
+                    .containsEntry("rejected", 1L);
+        }
+    }
+
+    @Test
+    void freeingTwiceIsANoOp() {
+        try (OffHeapContentStore store = new OffHeapContentStore(SLAB_BYTES)) {
+            OffHeapContentStore.Slot slot = store.put("a", bytes(700));
+            store.put("b", bytes(700));
+            assertThat(store.getStoreStatistics()).containsEntry("usedBytes", 1_400L).containsEntry("entries", 2L);
+
+            store.free(slot);
+            store.free(slot);
+            assertThat(store.read(slot)).isNull();
+            assertThat(store.getStoreStatistics()).containsEntry("usedBytes", 700L).containsEntry("entries", 1L);
+
+            // The freed chunk is reused without touching the other value
+            OffHeapContentStore.Slot reused = store.put("c", bytes(650));
+            assertThat(store.read(reused)).isEqualTo(bytes(650));
+            assertThat(store.getStoreStatistics()).containsEntry("slabs", 1).containsEntry("evicted", 0L);
+        }
+    }
+
+    @Test
+    void fullClassEvictsItsLeastRecentlyUsedChunk() {
+        try (OffHeapContentStore store = new OffHeapContentStore(SLAB_BYTES)) {
+            List<OffHeapContentStore.Slot> evicted = new ArrayList<>();
+            store.setEvictionListener(evicted::add);
+
+            int chunks = SLAB_BYTES / 512;
+            List<OffHeapContentStore.Slot> slots = new ArrayList<>();
+            for (int i = 0; i < chunks; i++) {
+                slots.add(store.put(i, bytes(512)));
+            }
+            // Reading the eldest makes the second one the victim
+            store.read(slots.get(0));
+            store.put(chunks, bytes(512));
+
+            assertThat(evicted).hasSize(1);
+            assertThat(evicted.getFirst().getKey()).isEqualTo(1);
+            assertThat(store.read(slots.get(1))).isNull();
+            assertThat(store.read(slots.get(0))).isEqualTo(bytes(512));
+            assertThat(store.getStoreStatistics()).containsEntry("evicted", 1L).containsEntry("entries", (long) chunks);
+        }
+    }
+
+    @Test
+    void classWithoutASlabIsRejectedWhenNoneIsLeft() {
+        try (OffHeapContentStore store = new OffHeapContentStore(SLAB_BYTES)) {
+            List<OffHeapContentStore.Slot> evicted = new ArrayList<>();
+            store.setEvictionListener(evicted::add);
+
+            OffHeapContentStore.Slot small = store.put("small", bytes(500));
+            // The only slab belongs to the smallest class, and the larger class has nothing to evict
+            assertThat(store.put("large", bytes(5_000))).isNull();
+
+            assertThat(evicted).isEmpty();
+            assertThat(store.read(small)).isEqualTo(bytes(500));
+            assertThat(store.getStoreStatistics()).containsEntry("rejected", 1L).containsEntry("stored", 1L);
+        }
+    }
+
+    @Test
+    void nothingIsReadOrStoredAfterClose() {
+        OffHeapContentStore store = new OffHeapContentStore(SLAB_BYTES);
+        OffHeapContentStore.Slot slot = store.put("a", bytes(1_000));
+        store.close();
+        store.close();
+
+        assertThat(store.read(slot)).isNull();
+        assertThat(store.put("b", bytes(1_000))).isNull();
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) (length % 251));
+        for (int i = 0; i < length; i += 97) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+}
@@ -0,0 +1,74 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.utils.PassageRanker;
+import com.mcp.webScraper.utils.TextNormalizer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PassageRankerTests {
+
+    private static final String ANSWER = "The garbage collector pauses application threads during compaction.";
+    private static final String OTHER_ANSWER = "Concurrent marking lets the collector trace objects while threads run.";
+
+    @Test
+    void textWithinTheBudgetIsReturnedAsIs() {
+        assertThat(PassageRanker.rank("short text", "anything", 100)).isEqualTo("short text");
+        assertThat(PassageRanker.rank(null, "anything", 100)).isNull();
+    }
+
+    @Test
+    void relevantPassageBeatsThePreamble() {
+        String text = page(200, 120, ANSWER);
+        String ranked = PassageRanker.rank(text, "how does the garbage collector pause threads", 700);
+
+        assertThat(ranked).contains(ANSWER).hasSizeLessThanOrEqualTo(700);
+        assertThat(ranked).doesNotStartWith(filler(0));
+    }
+
+    @Test
+    void rareTermsOutweighTermsOnEveryPage() {
+        // "weather" is in every sentence, so it says nothing about which passage to pick
+        String text = page(200, 150, "Weather aside, the garbage collector pauses application threads.");
+        String ranked = PassageRanker.rank(text, "weather garbage", 650);
+
+        assertThat(ranked).contains("the garbage collector pauses");
+    }
+
+    @Test
+    void selectedPassagesKeepDocumentOrder() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append(i == 20 ? ANSWER : i == 160 ? OTHER_ANSWER : filler(i)).append(' ');
+        }
+        String ranked = PassageRanker.rank(text.toString().trim(), "garbage collector threads", 1_400);
+
+        assertThat(ranked).contains(ANSWER, OTHER_ANSWER, " ... ");
+        assertThat(ranked.indexOf(ANSWER)).isLessThan(ranked.indexOf(OTHER_ANSWER));
+    }
+
+    @Test
+    void unmatchedQueriesFallBackToTheHead() {
+        String text = page(200, 120, ANSWER);
+        assertThat(PassageRanker.rank(text, "quantum chromodynamics", 700)).isEqualTo(TextNormalizer.normalize(text, 700));
+        assertThat(PassageRanker.rank(text, "what is the", 700)).isEqualTo(TextNormalizer.normalize(text, 700));
+    }
+
+    @Test
+    void passageLargerThanTheBudgetIsCut() {
+        String ranked = PassageRanker.rank(page(200, 120, ANSWER), "garbage collector", 60);
+        assertThat(ranked).hasSizeLessThanOrEqualTo(63).endsWith("...");
+    }
+
+    private static String page(int sentences, int answerAt, String answer) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            text.append(i == answerAt ? answer : filler(i)).append(' ');
+        }
+        return text.toString().trim();
+    }
+
+    private static String filler(int i) {
+        return "Sentence " + i + " describes the weather and the gardens around the old town hall.";
+    }
+}
@@ -0,0 +1,78 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.PdfTextExtractor;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Throughput of sequential vs parallel PDF text extraction on a multi-hundred-page document.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class PdfExtractionBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfExtractionBenchmarkTests.class);
+
+    private static final int PAGES = 400;
+    private static final int LINES_PER_PAGE = 45;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    static Path tempDir;
+
+    private static File pdf;
+
+    @BeforeAll
+    static void createDocument() throws IOException {
+        pdf = tempDir.resolve("benchmark.pdf").toFile();
+        PdfTextExtractorTests.writeDocument(pdf, PAGES, LINES_PER_PAGE);
+    }
+
+    @Test
+    void parallelExtractionScalesWithCores() throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int budget = Integer.MAX_VALUE;
+
+        long sequentialMs;
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            new PdfTextExtractor(1).extractSequential(document, PAGES, budget); // warm-up
+            long start = System.nanoTime();
+            new PdfTextExtractor(1).extractSequential(document, PAGES, budget);
+            sequentialMs = (System.nanoTime() - start) / 1_000_000;
+        }
+        log.info("sequential: {} pages in {} ms ({} pages/s)", PAGES, sequentialMs, pagesPerSecond(sequentialMs));
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            PdfTextExtractor extractor = new PdfTextExtractor(threads);
+            try {
+                extractor.extractParallel(pdf, PAGES, budget); // warm-up
+
+                long best = Long.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    extractor.extractParallel(pdf, PAGES, budget);
+                    best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+                }
+                log.info("parallel x{}: {} pages in {} ms ({} pages/s, speedup {})",
+                        threads, PAGES, best, pagesPerSecond(best),
+                        String.format("%.2f", sequentialMs / (double) Math.max(1, best)));
+            } finally {
+                extractor.cleanup();
+            }
+        }
+    }
+
+    private static long pagesPerSecond(long millis) {
+        return PAGES * 1000L / Math.max(1, millis);
+    }
+}
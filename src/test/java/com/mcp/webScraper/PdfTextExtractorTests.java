@@ -0,0 +1,112 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.PdfTextExtractor;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
+import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_CONTENT_LENGTH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfTextExtractorTests {
+
+    private static final int PAGES = 40;
+
+    @TempDir
+    static Path tempDir;
+
+    private static File pdf;
+    private static PdfTextExtractor extractor;
+
+    @BeforeAll
+    static void createDocument() throws IOException {
+        pdf = tempDir.resolve("document.pdf").toFile();
+        writeDocument(pdf, PAGES, 10);
+        extractor = new PdfTextExtractor(4);
+    }
+
+    @AfterAll
+    static void stopExtractor() {
+        extractor.cleanup();
+    }
+
+    @Test
+    void parallelRangesAreReassembledInPageOrder() throws IOException {
+        String sequential;
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            sequential = extractor.extractSequential(document, PAGES, Integer.MAX_VALUE);
+        }
+
+        assertThat(sequential).startsWith("Page 0 line 0 ").contains("Page " + (PAGES - 1) + " line 9");
+        assertThat(extractor.extractParallel(pdf, PAGES, Integer.MAX_VALUE)).isEqualTo(sequential);
+    }
+
+    @Test
+    void extractionStopsAtTheBudget() throws IOException {
+        String text = extractor.extractParallel(pdf, PAGES, 500);
+        assertThat(text).hasSizeLessThanOrEqualTo(503).endsWith("...");
+
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            assertThat(extractor.extractSequential(document, PAGES, 500)).isEqualTo(text);
+        }
+    }
+
+    @Test
+    void defaultBudgetReadsOnlyTheFirstPages() throws IOException {
+        String text = extractor.extract(pdf, MAX_CONTENT_LENGTH);
+        assertThat(text).startsWith("Page 0 line 0 ").hasSizeLessThanOrEqualTo(MAX_CONTENT_LENGTH + 3);
+        assertThat(text).doesNotContain("Page " + (PAGES - 1) + " ");
+    }
+
+    @Test
+    void encryptedDocumentsAreRejected() throws IOException {
+        File encrypted = tempDir.resolve("encrypted.pdf").toFile();
+        try (PDDocument document = Loader.loadPDF(pdf)) {
+            StandardProtectionPolicy policy = new StandardProtectionPolicy("owner", "", new AccessPermission());
+            policy.setEncryptionKeyLength(128);
+            document.protect(policy);
+            document.save(encrypted);
+        }
+
+        assertThatThrownBy(() -> extractor.extract(encrypted, MAX_CONTENT_LENGTH))
+                .isInstanceOf(IOException.class).hasMessageContaining("Encrypted");
+    }
+
+    static void writeDocument(File file, int pages, int linesPerPage) throws IOException {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 9);
+                    content.setLeading(14);
+                    content.newLineAtOffset(40, 750);
+                    for (int line = 0; line < linesPerPage; line++) {
+                        content.showText("Page " + p + " line " + line
+                                + " the quick brown fox jumps over the lazy dog while indexing text");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file);
+        }
+    }
+}
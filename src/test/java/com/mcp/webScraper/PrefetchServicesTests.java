@@ -0,0 +1,49 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Services.PrefetchServices;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.PREFETCH_BUDGET_PER_MINUTE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefetchServicesTests {
+
+    @Test
+    void prefetchesAreReconciledAgainstTheFinalResults() {
+        PrefetchServices prefetch = new PrefetchServices();
+        prefetch.prefetch(1, "https://a.example.com/", 5500);
+        prefetch.prefetch(1, "https://b.example.com/", 5500);
+        prefetch.prefetch(2, "https://c.example.com/", 5500);
+
+        prefetch.reconcile(1, List.of("https://a.example.com/", "https://d.example.com/"));
+        assertThat(prefetch.getPrefetchStatistics())
+                .containsEntry("issued", 3L)
+                .containsEntry("used", 1L)
+                .containsEntry("wasted", 1L);
+
+        // Each request is reconciled once, and requests without prefetches are ignored
+        prefetch.reconcile(1, List.of("https://b.example.com/"));
+        prefetch.reconcile(3, List.of("https://c.example.com/"));
+        assertThat(prefetch.getPrefetchStatistics())
+                .containsEntry("used", 1L)
+                .containsEntry("wasted", 1L);
+
+        prefetch.reconcile(2, List.of());
+        assertThat(prefetch.getPrefetchStatistics()).containsEntry("wasted", 2L);
+    }
+
+    @Test
+    void prefetchesBeyondTheBudgetAreSkipped() {
+        PrefetchServices prefetch = new PrefetchServices();
+        for (int i = 0; i < PREFETCH_BUDGET_PER_MINUTE + 5; i++) {
+            prefetch.prefetch(i, "https://example.com/" + i, 5500);
+        }
+
+        long issued = prefetch.getPrefetchStatistics().get("issued");
+        long skipped = prefetch.getPrefetchStatistics().get("skipped");
+        assertThat(issued).isLessThanOrEqualTo(PREFETCH_BUDGET_PER_MINUTE);
+        assertThat(issued + skipped).isEqualTo(PREFETCH_BUDGET_PER_MINUTE + 5);
+    }
+}
@@ -0,0 +1,70 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.utils.ReadabilityExtractor;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadabilityExtractorTests {
+
+    private static final String PARAGRAPH = "The committee met on Tuesday, reviewed the budget, and agreed on the "
+            + "plan for the coming year, which includes new parks, wider roads, and a library.";
+
+    @Test
+    void articleWinsOverPageChrome() {
+        String html = """
+                <html><body>
+                  <nav><a href="/">Home</a> <a href="/news">News</a></nav>
+                  <header>Daily Example</header>
+                  <div class="sidebar"><p>Trending now, most read, editors' picks, and more, all in one place.</p></div>
+                  <div class="story-body">
+                    <h1>Council approves plan</h1>
+                    <p>%1$s</p><p>%1$s</p><p>%1$s</p>
+                  </div>
+                  <div class="comments"><p>First comment, great article, thanks for sharing this with us.</p></div>
+                  <p hidden>Hidden text that should never be returned to the caller.</p>
+                  <footer>Copyright, all rights reserved</footer>
+                </body></html>
+                """.formatted(PARAGRAPH);
+
+        String text = ReadabilityExtractor.extract(html, "https://example.com/");
+        assertThat(text).contains("The committee met on Tuesday");
+        assertThat(text).doesNotContain("Trending now", "First comment", "Hidden text", "Home", "Copyright");
+    }
+
+    @Test
+    void linkHeavyBlocksLoseToProse() {
+        String links = "<li><a href=\"/a\">A long headline about something, somewhere, some time ago today</a></li>".repeat(8);
+        String html = """
+                <html><body>
+                  <div class="list"><ul>%s</ul></div>
+                  <div class="text"><p>%s</p><p>%s</p></div>
+                </body></html>
+                """.formatted(links, PARAGRAPH, PARAGRAPH);
+
+        String text = ReadabilityExtractor.extract(html, null);
+        assertThat(text).startsWith("The committee met").doesNotContain("A long headline");
+    }
+
+    @Test
+    void continuationSiblingsAreKept() {
+        String html = """
+                <html><body><main>
+                  <div class="article"><p>%1$s</p><p>%1$s</p></div>
+                  <p>A closing paragraph long enough to belong to the article, with no links in it at all.</p>
+                  <div class="promo"><p>Subscribe today, save more, and never miss a story again, ever.</p></div>
+                </main></body></html>
+                """.formatted(PARAGRAPH);
+
+        String text = ReadabilityExtractor.extract(html, null);
+        assertThat(text).contains("The committee met", "A closing paragraph").doesNotContain("Subscribe");
+    }
+
+    @Test
+    void pagesWithoutCandidatesFallBackToBodyText() {
+        assertThat(ReadabilityExtractor.extract("<html><body><span>Short note</span></body></html>", null))
+                .isEqualTo("Short note");
+        assertThat(ReadabilityExtractor.extract("", null)).isEmpty();
+        assertThat(ReadabilityExtractor.extract(null, null)).isEmpty();
+    }
+}
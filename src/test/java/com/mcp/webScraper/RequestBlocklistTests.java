@@ -0,0 +1,66 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.RequestBlocklist;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.BLOCKLIST_RULES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestBlocklistTests {
+
+    @Test
+    void hostRulesMatchTheHostAndItsSubdomains() {
+        RequestBlocklist blocklist = new RequestBlocklist();
+        assertThat(blocklist.blocks("https://doubleclick.net/ad", "script")).isTrue();
+        assertThat(blocklist.blocks("https://stats.g.DoubleClick.net/ad", "script")).isTrue();
+        assertThat(blocklist.blocks("https://bat.bing.com/bat.js", "script")).isTrue();
+
+        // Only whole labels match
+        assertThat(blocklist.blocks("https://notdoubleclick.net/", "script")).isFalse();
+        assertThat(blocklist.blocks("https://doubleclick.net.example.com/", "script")).isFalse();
+        assertThat(blocklist.blocks("https://www.bing.com/search", "document")).isFalse();
+    }
+
+    @Test
+    void pathRulesMatchAnywhereInPathAndQuery() {
+        RequestBlocklist blocklist = new RequestBlocklist();
+        assertThat(blocklist.blocks("https://example.com/pagead/show", "script")).isTrue();
+        assertThat(blocklist.blocks("https://example.com/js/ADSBYGOOGLE.js", "script")).isTrue();
+        assertThat(blocklist.blocks("https://example.com/load?src=/gtm.js", "script")).isTrue();
+        // A partial match of one fragment must not hide another that starts inside it
+        assertThat(blocklist.blocks("https://example.com/static/ad/ads/1", "script")).isTrue();
+        assertThat(blocklist.blocks("https://example.com/pagea/gtag/js", "script")).isTrue();
+
+        assertThat(blocklist.blocks("https://example.com/adsense-guide", "document")).isFalse();
+        assertThat(blocklist.blocks("https://example.com/reads/article", "document")).isFalse();
+    }
+
+    @Test
+    void resourceTypesAreBlockedAndOtherUrlsAreNot() {
+        RequestBlocklist blocklist = new RequestBlocklist();
+        assertThat(blocklist.blocks("https://example.com/logo.png", "image")).isTrue();
+        assertThat(blocklist.blocks("https://example.com/site.css", "stylesheet")).isTrue();
+        assertThat(blocklist.blocks("https://example.com/app.js", "script")).isFalse();
+        assertThat(blocklist.blocks("https://example.com/", null)).isFalse();
+
+        assertThat(blocklist.blocks("data:text/plain,pagead", "script")).isFalse();
+        assertThat(blocklist.blocks(null, "script")).isFalse();
+        assertThat(blocklist.blocks("https://exa mple.com/pagead/", "script")).isFalse();
+    }
+
+    @Test
+    void updateAddsBlockedHostsAndHonoursAllowedOnes() {
+        RequestBlocklist blocklist = new RequestBlocklist();
+        blocklist.update(Set.of("tracker.example.org"), Set.of("criteo.com"));
+
+        assertThat(blocklist.blocks("https://cdn.tracker.example.org/t.js", "script")).isTrue();
+        assertThat(blocklist.blocks("https://example.org/", "document")).isFalse();
+        assertThat(blocklist.blocks("https://static.criteo.com/js", "script")).isFalse();
+        assertThat(blocklist.blocks("https://criteo.net/js", "script")).isTrue();
+
+        long hostRules = BLOCKLIST_RULES.stream().filter(rule -> rule.startsWith("||")).count();
+        assertThat(blocklist.getBlocklistStatistics()).containsEntry("hosts", (int) hostRules);
+    }
+}
@@ -0,0 +1,166 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.HttpFetchClient;
+import com.mcp.webScraper.Workers.PageCapture;
+import com.mcp.webScraper.Workers.ResourceRouter;
+import com.mcp.webScraper.Workers.ResourceRouter.ResourceType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_PDF_BYTES;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_TEXT_RESOURCE_BYTES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceRouterTests {
+
+    @TempDir
+    static Path tempDir;
+
+    private static HttpServer server;
+    private static String base;
+    private static byte[] pdf;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        Path document = tempDir.resolve("report.pdf");
+        PdfTextExtractorTests.writeDocument(document.toFile(), 3, 5);
+        pdf = Files.readAllBytes(document);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/report.pdf", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/pdf");
+            exchange.getResponseHeaders().add("Last-Modified", "Tue, 01 Sep 2026 00:00:00 GMT");
+            exchange.sendResponseHeaders(200, "HEAD".equals(exchange.getRequestMethod()) ? -1 : pdf.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (!"HEAD".equals(exchange.getRequestMethod())) out.write(pdf);
+            }
+        });
+        // Declares no size, then streams past the PDF limit
+        server.createContext("/endless.pdf", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/pdf");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(200, 0);
+            byte[] chunk = new byte[64 * 1024];
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (long sent = 0; sent <= MAX_PDF_BYTES; sent += chunk.length) {
+                    out.write(chunk);
+                }
+            } catch (IOException e) {
+                // The client hung up once over the limit
+            }
+        });
+        server.createContext("/notes.txt", exchange -> {
+            byte[] body = "plain notes".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, "HEAD".equals(exchange.getRequestMethod()) ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (!"HEAD".equals(exchange.getRequestMethod())) out.write(body);
+            }
+        });
+        server.createContext("/page", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void routesByContentType() {
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(200, "text/html; charset=utf-8", -1))).isEqualTo(ResourceType.HTML);
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(200, "", -1))).isEqualTo(ResourceType.HTML);
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(200, "application/pdf", 1000))).isEqualTo(ResourceType.PDF);
+        assertThat(ResourceRouter.classify("https://a.com/x.pdf?dl=1", probe(200, "application/octet-stream", 1000))).isEqualTo(ResourceType.PDF);
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(200, "application/ld+json", 1000))).isEqualTo(ResourceType.TEXT);
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(200, "image/png", 1000))).isEqualTo(ResourceType.UNSUPPORTED);
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(410, "text/html", -1))).isEqualTo(ResourceType.MISSING);
+    }
+
+    @Test
+    void fallsBackToSuffixWithoutUsableProbe() {
+        assertThat(ResourceRouter.classify("https://a.com/doc.PDF", null)).isEqualTo(ResourceType.PDF);
+        assertThat(ResourceRouter.classify("https://a.com/doc", null)).isEqualTo(ResourceType.HTML);
+        // Origins that refuse plain clients may still serve a browser
+        assertThat(ResourceRouter.classify("https://a.com/doc", probe(403, "text/html", -1))).isEqualTo(ResourceType.HTML);
+    }
+
+    @Test
+    void rejectsOversizedResourcesAtProbeTime() {
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(200, "application/pdf", MAX_PDF_BYTES + 1))).isEqualTo(ResourceType.TOO_LARGE);
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(200, "text/plain", MAX_TEXT_RESOURCE_BYTES + 1))).isEqualTo(ResourceType.TOO_LARGE);
+        assertThat(ResourceRouter.classify("https://a.com/x", probe(200, "application/pdf", -1))).isEqualTo(ResourceType.PDF);
+    }
+
+    @Test
+    void capturesNonHtmlWithoutBrowser() {
+        ResourceRouter router = new ResourceRouter(new HttpFetchClient());
+
+        PageCapture text = router.captureDirect(base + "/notes.txt", 1000);
+        assertThat(text.getKind()).isEqualTo(PageCapture.Kind.TEXT);
+        assertThat(text.getEtag()).isEqualTo("\"v1\"");
+
+        PageCapture missing = router.captureDirect(base + "/gone", 1000);
+        assertThat(missing.getKind()).isEqualTo(PageCapture.Kind.FAILED);
+
+        // HTML is left for a browser instance
+        assertThat(router.captureDirect(base + "/page", 1000)).isNull();
+    }
+
+    @Test
+    void pdfIsStreamedToATempFile() throws IOException {
+        ResourceRouter router = new ResourceRouter(new HttpFetchClient());
+
+        PageCapture capture = router.captureDirect(base + "/report.pdf", 1000);
+        try {
+            assertThat(capture.getKind()).isEqualTo(PageCapture.Kind.PDF);
+            assertThat(capture.getLastModified()).isEqualTo("Tue, 01 Sep 2026 00:00:00 GMT");
+            assertThat(Files.readAllBytes(capture.getFile())).isEqualTo(pdf);
+        } finally {
+            Files.deleteIfExists(capture.getFile());
+        }
+    }
+
+    @Test
+    void pdfDownloadStopsAtTheSizeLimit() {
+        ResourceRouter router = new ResourceRouter(new HttpFetchClient());
+
+        PageCapture capture = router.captureDirect(base + "/endless.pdf", 1000);
+        assertThat(capture.getKind()).isEqualTo(PageCapture.Kind.FAILED);
+        assertThat(capture.getFile()).isNull();
+    }
+
+    private static HttpFetchClient.ProbeResult probe(int status, String contentType, long length) {
+        Map<String, List<String>> headers = length >= 0
+                ? Map.of("content-type", List.of(contentType), "content-length", List.of(Long.toString(length)))
+                : Map.of("content-type", List.of(contentType));
+        return HttpFetchClient.ProbeResult.from(status, HttpHeaders.of(headers, (name, value) -> true));
+    }
+}
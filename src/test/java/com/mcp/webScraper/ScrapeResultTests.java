@@ -0,0 +1,50 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.webScraper.entity.ScrapeResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScrapeResultTests {
+
+    @Test
+    void revalidatesOnlyWithAValidator() {
+        ScrapeResult result = new ScrapeResult(true, "content", "https://example.com/", null);
+        assertThat(result.hasValidators()).isFalse();
+
+        result.setEtag("\"v1\"");
+        assertThat(result.hasValidators()).isTrue();
+
+        result.setEtag(null);
+        result.setLastModified("Tue, 01 Sep 2026 00:00:00 GMT");
+        assertThat(result.hasValidators()).isTrue();
+    }
+
+    @Test
+    void freshnessIsMeasuredFromTheFetch() {
+        ScrapeResult result = new ScrapeResult(true, "content", "https://example.com/", null);
+        assertThat(result.isFresh(60_000)).isTrue();
+
+        result.setFetchedAt(System.currentTimeMillis() - 120_000);
+        assertThat(result.isFresh(60_000)).isFalse();
+        assertThat(result.isFresh(180_000)).isTrue();
+    }
+
+    @Test
+    void validatorsAndFetchTimeSurviveSerialization() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ScrapeResult result = new ScrapeResult(true, "content", "https://example.com/", null);
+        result.setEtag("\"v1\"");
+        result.setLastModified("Tue, 01 Sep 2026 00:00:00 GMT");
+        result.setFetchedAt(1_000L);
+
+        ScrapeResult read = objectMapper.readValue(objectMapper.writeValueAsBytes(result), ScrapeResult.class);
+        assertThat(read.getEtag()).isEqualTo("\"v1\"");
+        assertThat(read.getLastModified()).isEqualTo("Tue, 01 Sep 2026 00:00:00 GMT");
+        assertThat(read.getFetchedAt()).isEqualTo(1_000L);
+        assertThat(read.isFresh(60_000)).isFalse();
+    }
+}
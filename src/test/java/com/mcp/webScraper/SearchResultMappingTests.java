@@ -0,0 +1,45 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.PlaywrightBrowserSearchTools;
+import com.mcp.webScraper.entity.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultMappingTests {
+
+    @Test
+    void extractedObjectsBecomeResults() {
+        List<SearchResult> results = PlaywrightBrowserSearchTools.toSearchResults(List.of(
+                Map.of("title", "First", "href", "https://a.example.com/", "snippet", "about a"),
+                Map.of("title", "Second", "href", "https://b.example.com/", "snippet", "about b")));
+
+        assertThat(results).extracting(SearchResult::getSource)
+                .containsExactly("https://a.example.com/", "https://b.example.com/");
+        assertThat(results).extracting(SearchResult::getSnippet).containsExactly("about a", "about b");
+        assertThat(results).allMatch(SearchResult::isSuccess);
+    }
+
+    @Test
+    void malformedItemsAreSkipped() {
+        Map<String, Object> noSnippet = new HashMap<>();
+        noSnippet.put("href", "https://c.example.com/");
+        noSnippet.put("snippet", null);
+
+        List<SearchResult> results = PlaywrightBrowserSearchTools.toSearchResults(List.of(
+                "https://not-an-object.example.com/",
+                Map.of("title", "No link"),
+                Map.of("href", 42),
+                noSnippet));
+
+        assertThat(results).extracting(SearchResult::getSource).containsExactly("https://c.example.com/");
+        assertThat(results.getFirst().getSnippet()).isNull();
+
+        assertThat(PlaywrightBrowserSearchTools.toSearchResults(null)).isEmpty();
+        assertThat(PlaywrightBrowserSearchTools.toSearchResults(Map.of())).isEmpty();
+    }
+}
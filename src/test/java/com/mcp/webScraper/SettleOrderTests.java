@@ -0,0 +1,25 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.PlaywrightBrowserSearchTools;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettleOrderTests {
+
+    private static final String RESULTS = "article[data-testid='result'], .result, .web-result";
+
+    @Test
+    void declaredOrderWithoutAMatchYet() {
+        assertThat(PlaywrightBrowserSearchTools.settleOrder(RESULTS, null))
+                .containsExactly("article[data-testid='result']", ".result", ".web-result");
+    }
+
+    @Test
+    void rememberedSelectorIsTriedFirstAndOnlyOnce() {
+        assertThat(PlaywrightBrowserSearchTools.settleOrder(RESULTS, ".web-result"))
+                .containsExactly(".web-result", "article[data-testid='result']", ".result");
+        assertThat(PlaywrightBrowserSearchTools.settleOrder(RESULTS + ", ", ".result"))
+                .containsExactly(".result", "article[data-testid='result']", ".web-result");
+    }
+}
@@ -0,0 +1,68 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.SimilarQueryIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rephrased queries found in a full similar-query index, unrelated ones rejected, and lookup cost.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SimilarQueryIndexBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarQueryIndexBenchmarkTests.class);
+
+    private static final int QUERIES = 10_000;
+    private static final int VOCABULARY = 2_000;
+
+    @Test
+    void recallAndLookupCost() {
+        SimilarQueryIndex index = new SimilarQueryIndex(0.8, QUERIES, false);
+        Random random = new Random(42);
+
+        List<List<String>> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            List<String> words = randomWords(random, 3 + random.nextInt(3));
+            queries.add(words);
+            index.add(String.join(" ", words));
+        }
+
+        // Same words reordered, with filler stop words and plurals
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            List<String> original = queries.get(random.nextInt(QUERIES));
+            List<String> words = new ArrayList<>(original);
+            words.set(0, words.get(0) + "s");
+            Collections.shuffle(words, random);
+            words.add(random.nextInt(words.size()), "with");
+            if (String.join(" ", original).equals(index.findSimilar(String.join(" ", words)))) found++;
+        }
+        long lookupNs = (System.nanoTime() - start) / 1_000;
+
+        int falseMatches = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (index.findSimilar(String.join(" ", randomWords(random, 4))) != null) falseMatches++;
+        }
+
+        log.info("{} indexed: {} of 1000 rephrasings found, {} of 1000 unrelated matched, {} ns per lookup, {}",
+                QUERIES, found, falseMatches, lookupNs, index.getIndexStatistics());
+    }
+
+    private static List<String> randomWords(Random random, int count) {
+        List<String> words = new ArrayList<>();
+        while (words.size() < count) {
+            String word = "w" + Integer.toString(random.nextInt(VOCABULARY), 36) + "x";
+            if (!words.contains(word)) words.add(word);
+        }
+        return words;
+    }
+}
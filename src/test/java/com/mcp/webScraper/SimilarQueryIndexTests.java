@@ -0,0 +1,57 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.SimilarQueryIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimilarQueryIndexTests {
+
+    @Test
+    void rephrasingsAreFound() {
+        SimilarQueryIndex index = new SimilarQueryIndex(0.8, 100, true);
+        index.add("spring boot microservices");
+        index.add("python list comprehension");
+
+        assertThat(index.findSimilar("microservices with spring boot")).isEqualTo("spring boot microservices");
+        assertThat(index.findSimilar("the spring boot microservice")).isEqualTo("spring boot microservices");
+        assertThat(index.findSimilar("how to do python list comprehensions")).isEqualTo("python list comprehension");
+    }
+
+    @Test
+    void differentQueriesAreNotMatched() {
+        SimilarQueryIndex index = new SimilarQueryIndex(0.8, 100, true);
+        index.add("spring boot microservices");
+
+        // Sharing most words is not enough below the threshold
+        assertThat(index.findSimilar("spring boot microservices kubernetes")).isNull();
+        assertThat(index.findSimilar("spring framework")).isNull();
+        // A query is not its own approximate match
+        assertThat(index.findSimilar("spring boot microservices")).isNull();
+    }
+
+    @Test
+    void indexIsBoundedAndRemovalsAreForgotten() {
+        SimilarQueryIndex index = new SimilarQueryIndex(0.8, 2, true);
+        index.add("first query words");
+        index.add("second query words");
+        index.add("third query words");
+
+        assertThat(index.contains("first query words")).isFalse();
+        assertThat(index.getIndexStatistics().get("entries")).isEqualTo(2);
+
+        index.remove("third query words");
+        assertThat(index.findSimilar("words third query")).isNull();
+    }
+
+    @Test
+    void oneRefreshPerQueryAtATime() {
+        SimilarQueryIndex index = new SimilarQueryIndex(0.8, 100, true);
+        assertThat(index.startRefresh("java streams")).isTrue();
+        assertThat(index.startRefresh("java streams")).isFalse();
+        index.refreshDone("java streams");
+        assertThat(index.startRefresh("java streams")).isTrue();
+
+        assertThat(new SimilarQueryIndex(0.8, 100, false).startRefresh("java streams")).isFalse();
+    }
+}
@@ -0,0 +1,67 @@
+package com.mcp.webScraper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.webScraper.Configs.CompressedCache;
+import com.mcp.webScraper.entity.SearchResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of a hot search key once its entry goes stale, with the refresh in the background vs inline.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class StaleWhileRevalidateBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleWhileRevalidateBenchmarkTests.class);
+
+    private static final long SEARCH_MS = 300;
+    private static final int CALLERS = 50;
+
+    @Test
+    void staleKeyLatency() throws Exception {
+        CompressedCache cache = newCache();
+        AtomicInteger searches = new AtomicInteger();
+        cache.get("java_5", () -> search(searches, true));
+
+        // Past the fresh part of its lifetime, every caller gets the stale list at once
+        Thread.sleep(150);
+        long start = System.nanoTime();
+        List<CompletableFuture<List<?>>> callers = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> cache.get("java_5", () -> search(searches, true))));
+        }
+        CompletableFuture.allOf(callers.toArray(CompletableFuture[]::new)).join();
+        long staleMs = (System.nanoTime() - start) / 1_000_000;
+
+        Thread.sleep(SEARCH_MS * 2);
+        log.info("{} callers on a stale key: {} ms (vs {} ms search), {} searches, {}",
+                CALLERS, staleMs, SEARCH_MS, searches.get(), cache.getCacheStatistics());
+    }
+
+    private static CompressedCache newCache() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        CompressedCache cache = new CompressedCache("searchResults", 1024 * 1024, Duration.ofMinutes(30), objectMapper,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, SearchResult.class));
+        cache.setExpiryPolicy((key, value) -> ((SearchResult) ((List<?>) value).getFirst()).isSuccess()
+                ? new CompressedCache.Lifetime(Duration.ofMillis(100), Duration.ofMinutes(1))
+                : CompressedCache.Lifetime.negative(Duration.ofMillis(200)));
+        return cache;
+    }
+
+    private static List<SearchResult> search(AtomicInteger searches, boolean success) throws InterruptedException {
+        searches.incrementAndGet();
+        Thread.sleep(SEARCH_MS);
+        return List.of(success
+                ? new SearchResult(true, "https://example.com", "snippet", null, null)
+                : new SearchResult(false, "error", null, "unavailable", "unavailable"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.Workers.StealthPolicy;
+import com.mcp.webScraper.Workers.StealthProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StealthPolicyTests {
+
+    @Test
+    void scriptsInvokeThemselves() {
+        // addInitScript evaluates the source as an expression; a bare function would be created and never called
+        for (StealthProfile profile : new StealthProfile[]{StealthProfile.LIGHT, StealthProfile.FULL}) {
+            String script = profile.getScript().strip();
+            assertThat(script).as(profile.name()).startsWith("(() => {").endsWith("})();");
+        }
+        assertThat(StealthProfile.OFF.getScript()).isNull();
+    }
+
+    @Test
+    void profileNamesAreParsedLeniently() {
+        assertThat(StealthProfile.parse(" Full ")).isEqualTo(StealthProfile.FULL);
+        assertThat(StealthProfile.parse("off")).isEqualTo(StealthProfile.OFF);
+        assertThat(StealthProfile.parse("paranoid")).isNull();
+        assertThat(StealthProfile.parse("")).isNull();
+        assertThat(StealthProfile.parse(null)).isNull();
+    }
+
+    @Test
+    void defaultsApplyPerPath() {
+        StealthPolicy policy = new StealthPolicy("light", "full", "");
+        assertThat(policy.forScrape("https://example.com/", null)).isEqualTo(StealthProfile.LIGHT);
+        assertThat(policy.forSearch()).isEqualTo(StealthProfile.FULL);
+
+        // Unknown names fall back to the built-in defaults
+        StealthPolicy fallback = new StealthPolicy("bogus", "", "");
+        assertThat(fallback.forScrape("https://example.com/", null)).isEqualTo(StealthProfile.LIGHT);
+        assertThat(fallback.forSearch()).isEqualTo(StealthProfile.FULL);
+    }
+
+    @Test
+    void mostSpecificDomainOverrideWins() {
+        StealthPolicy policy = new StealthPolicy("light", "full",
+                "linkedin.com=full, oracle.com=light,docs.oracle.com=off,broken,bad.com=max");
+        assertThat(policy.forScrape("https://www.linkedin.com/in/someone", null)).isEqualTo(StealthProfile.FULL);
+        assertThat(policy.forScrape("https://docs.oracle.com/javase/", null)).isEqualTo(StealthProfile.OFF);
+        assertThat(policy.forScrape("https://blogs.oracle.com/", null)).isEqualTo(StealthProfile.LIGHT);
+
+        // Labels only match whole, and malformed entries are ignored
+        assertThat(policy.forScrape("https://notlinkedin.com/", null)).isEqualTo(StealthProfile.LIGHT);
+        assertThat(policy.forScrape("https://bad.com/", null)).isEqualTo(StealthProfile.LIGHT);
+        assertThat(policy.getStealthStatistics()).containsEntry("domainOverrides", 3);
+    }
+
+    @Test
+    void requestedProfileWinsOverOverrides() {
+        StealthPolicy policy = new StealthPolicy("light", "full", "docs.oracle.com=off");
+        assertThat(policy.forScrape("https://docs.oracle.com/", StealthProfile.FULL)).isEqualTo(StealthProfile.FULL);
+        assertThat(policy.forScrape("not a url", null)).isEqualTo(StealthProfile.LIGHT);
+    }
+
+    @Test
+    void costsAreRecordedPerProfile() {
+        StealthPolicy policy = new StealthPolicy("light", "full", "");
+        policy.record(StealthProfile.FULL, 300, true);
+        policy.record(StealthProfile.FULL, 100, false);
+
+        assertThat(policy.getStealthStatistics().get("full"))
+                .isEqualTo(Map.of("pages", 2L, "failures", 1L, "avgPageMs", 200L));
+        assertThat(policy.getStealthStatistics().get("off"))
+                .isEqualTo(Map.of("pages", 0L, "failures", 0L, "avgPageMs", 0L));
+    }
+}
@@ -0,0 +1,61 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.utils.TextNormalizer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_CONTENT_LENGTH;
+
+/**
+ * Time and allocation of the regex-based clean-and-truncate vs the single-pass TextNormalizer.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TextNormalizerBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(TextNormalizerBenchmarkTests.class);
+
+    private static final int ITERATIONS = 200;
+
+    @Test
+    void normalizerAllocatesLessThanRegex() {
+        String page = TextNormalizerTests.buildPage(400_000);
+
+        for (int budget : new int[]{MAX_CONTENT_LENGTH, 50_000, 200_000}) {
+            Function<String, String> legacy = text -> TextNormalizerTests.legacyCleanAndTruncate(text, budget);
+            Function<String, String> normalizer = text -> TextNormalizer.normalize(text, budget);
+
+            Measurement before = measure(legacy, page);
+            Measurement after = measure(normalizer, page);
+            log.info("budget {}: regex {} us/op {} KB/op, normalizer {} us/op {} KB/op",
+                    budget, before.micros, before.kilobytes, after.micros, after.kilobytes);
+        }
+    }
+
+    private static Measurement measure(Function<String, String> function, String input) {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            function.apply(input); // warm-up
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            function.apply(input);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return new Measurement(elapsed / 1000 / ITERATIONS, allocated / 1024 / ITERATIONS);
+    }
+
+    private record Measurement(long micros, long kilobytes) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.mcp.webScraper;
+
+import com.mcp.webScraper.utils.TextNormalizer;
+import org.junit.jupiter.api.Test;
+
+import static com.mcp.webScraper.Workers.PlaywrightConfig.CONTENT_TRUNCATE_THRESHOLD;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.EXTRACT_SLACK_CHARS;
+import static com.mcp.webScraper.Workers.PlaywrightConfig.MAX_CONTENT_LENGTH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextNormalizerTests {
+
+    @Test
+    void matchesRegexCleanAndTruncate() {
+        String page = buildPage(300_000);
+        for (int budget : new int[]{10, MAX_CONTENT_LENGTH, 50_000, 200_000, 400_000}) {
+            assertThat(TextNormalizer.normalize(page, budget)).as("budget %d", budget)
+                    .isEqualTo(legacyCleanAndTruncate(page, budget));
+        }
+        for (String text : new String[]{"", "   ", "one", "  one  two\n\nthree\t", "a b"}) {
+            assertThat(TextNormalizer.normalize(text, 3)).as("'%s'", text).isEqualTo(legacyCleanAndTruncate(text, 3));
+        }
+    }
+
+    @Test
+    void chunksNormalizeLikeOneText() {
+        String page = buildPage(20_000);
+        TextNormalizer normalizer = new TextNormalizer(15_000);
+        for (int i = 0; i < page.length(); i += 777) {
+            normalizer.append(page.substring(i, Math.min(page.length(), i + 777)));
+        }
+        assertThat(normalizer.isFull()).isTrue();
+        assertThat(normalizer.toString()).isEqualTo(TextNormalizer.normalize(page, 15_000));
+    }
+
+    @Test
+    void dropsInvisibleCharactersAndKeepsSurrogatePairs() {
+        assertThat(TextNormalizer.normalize("﻿zero​width space\u0007")).isEqualTo("zerowidth space");
+        // A budget falling inside a surrogate pair does not split it
+        assertThat(TextNormalizer.normalize("ab😀cd", 3)).isEqualTo("ab...");
+    }
+
+    @Test
+    void inPageCapPastTheBudgetDoesNotChangeTheCut() {
+        // The in-page extraction collapses whitespace and stops EXTRACT_SLACK_CHARS past the budget
+        String collapsed = buildPage(300_000).trim().replaceAll("\\s+", " ");
+        for (int budget : new int[]{10, 100, MAX_CONTENT_LENGTH, 50_000, 200_000}) {
+            String capped = collapsed.substring(0, Math.min(collapsed.length(), budget + EXTRACT_SLACK_CHARS));
+            assertThat(TextNormalizer.normalize(capped, budget)).as("budget %d", budget)
+                    .isEqualTo(TextNormalizer.normalize(collapsed, budget));
+        }
+    }
+
+    // The replaced PlaywrightWebScraperTools#cleanAndTruncate
+    static String legacyCleanAndTruncate(String content, int charBudget) {
+        content = content.trim().replaceAll("\\s+", " ");
+        if (content.length() > charBudget) {
+            int lastSpace = content.lastIndexOf(' ', charBudget);
+            content = content.substring(0, lastSpace > charBudget - CONTENT_TRUNCATE_THRESHOLD ? lastSpace : charBudget) + "...";
+        }
+        return content;
+    }
+
+    static String buildPage(int length) {
+        String[] words = {"the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "indexing", "text"};
+        String[] gaps = {" ", "  ", "\n", "\t ", " \n\n  "};
+
+        StringBuilder page = new StringBuilder(length + 32).append("\n   ");
+        for (int i = 0; page.length() < length; i++) {
+            page.append(words[i % words.length]).append(gaps[i % gaps.length]);
+        }
+        return page.toString();
+    }
+}